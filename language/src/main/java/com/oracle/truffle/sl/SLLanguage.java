@@ -45,9 +45,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graalvm.options.OptionCategory;
+import org.graalvm.options.OptionDescriptors;
+import org.graalvm.options.OptionKey;
+import org.graalvm.options.OptionStability;
+import org.graalvm.options.OptionValues;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.Option;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage;
@@ -112,6 +120,10 @@ import com.oracle.truffle.sl.runtime.SLFunctionRegistry;
 import com.oracle.truffle.sl.runtime.SLLanguageView;
 import com.oracle.truffle.sl.runtime.SLNull;
 import com.oracle.truffle.sl.runtime.SLObject;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintLabels;
+import com.oracle.truffle.sl.runtime.SLTaintPolicy;
+import com.oracle.truffle.sl.runtime.SLTaintReporter;
 
 /**
  * SL is a simple language to demonstrate and showcase features of Truffle. The implementation is as
@@ -211,13 +223,57 @@ public final class SLLanguage extends TruffleLanguage<SLContext> {
 
     private final Shape rootShape;
 
+    private final SLTaintLabels taintLabels = new SLTaintLabels();
+
+    private final Assumption untainted = Truffle.getRuntime().createAssumption("no tainted values in any SL context");
+
+    @Option(help = "Minimum number of taint runs of a string to build an index for range queries.", category = OptionCategory.EXPERT, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<Integer> TaintIndexThreshold = new OptionKey<>(1024);
+
+    @Option(help = "Maximum number of functions split for calls with tainted arguments.", category = OptionCategory.EXPERT, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<Integer> TaintSplitLimit = new OptionKey<>(64);
+
+    @Option(help = "Path of a file declaring taint sources, sinks and sanitizers.", category = OptionCategory.USER, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<String> TaintPolicy = new OptionKey<>("");
+
+    @Option(help = "Mode of taint sinks declared without a mode: log, block, sanitize or sample.", category = OptionCategory.USER, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<String> TaintSinkMode = new OptionKey<>("block");
+
+    @Option(help = "Sampling taint sinks declared without a rate check one in this many calls on average.", category = OptionCategory.USER, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<Integer> TaintSampleRate = new OptionKey<>(100);
+
+    @Option(help = "Path of a file to which taint violations of sinks are reported asynchronously. Sinks do not block while violations are reported.", category = OptionCategory.USER, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<String> TaintViolationLog = new OptionKey<>("");
+
+    @Option(help = "Label attached to every line read from the standard input by readln and readLines. Lines are read untainted if empty.", category = OptionCategory.USER, stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<String> InputTaint = new OptionKey<>("");
+
+    /**
+     * Loaded with the first context. Contexts sharing this language use the same policy file, sink
+     * mode and sample rate, see {@link #areOptionsCompatible}.
+     */
+    private volatile SLTaintPolicy taintPolicy;
+
+    /** Set with the first context, like the {@link #taintPolicy}. */
+    private volatile int taintSplitLimit;
+    private final AtomicInteger taintSplits = new AtomicInteger();
+
     public SLLanguage() {
         counter++;
         this.rootShape = Shape.newBuilder().layout(SLObject.class).build();
     }
 
+    @Override
+    protected OptionDescriptors getOptionDescriptors() {
+        return new SLLanguageOptionDescriptors();
+    }
+
     @Override
     protected SLContext createContext(Env env) {
+        if (taintPolicy == null) {
+            taintSplitLimit = env.getOptions().get(TaintSplitLimit);
+            taintPolicy = SLTaintPolicy.load(env);
+        }
         return new SLContext(this, env, new ArrayList<>(EXTERNAL_BUILTINS));
     }
 
@@ -239,6 +295,41 @@ public final class SLLanguage extends TruffleLanguage<SLContext> {
         return target;
     }
 
+    @Override
+    protected boolean areOptionsCompatible(OptionValues firstOptions, OptionValues newOptions) {
+        /* The policy, its default sink mode and sample rate and the split limit all shape shared code. */
+        return firstOptions.get(TaintPolicy).equals(newOptions.get(TaintPolicy)) &&
+                        firstOptions.get(TaintSinkMode).equals(newOptions.get(TaintSinkMode)) &&
+                        firstOptions.get(TaintSampleRate).equals(newOptions.get(TaintSampleRate)) &&
+                        firstOptions.get(TaintSplitLimit).equals(newOptions.get(TaintSplitLimit));
+    }
+
+    /**
+     * Returns the taint policy applied to all functions of this language.
+     */
+    public SLTaintPolicy getTaintPolicy() {
+        SLTaintPolicy policy = taintPolicy;
+        return policy == null ? SLTaintPolicy.EMPTY : policy;
+    }
+
+    /**
+     * Counts a function split for calls with tainted arguments against the split limit, see
+     * {@link SLRootNode#getTaintedSplit}. Splits are shared by all contexts of this language, so
+     * they are counted here rather than per context.
+     *
+     * @return whether the function may be split, {@code false} once the limit is reached
+     */
+    public boolean reserveTaintSplit() {
+        int splits;
+        do {
+            splits = taintSplits.get();
+            if (splits >= taintSplitLimit) {
+                return false;
+            }
+        } while (!taintSplits.compareAndSet(splits, splits + 1));
+        return true;
+    }
+
     public RootCallTarget lookupBuiltin(NodeFactory<? extends SLBuiltinNode> factory) {
         RootCallTarget target = builtinTargets.get(factory);
         if (target != null) {
@@ -399,6 +490,24 @@ public final class SLLanguage extends TruffleLanguage<SLContext> {
         return object;
     }
 
+    /**
+     * Returns the table interning the taint labels of all {@link SLString}s of this language. Label
+     * ids are shared between contexts, just like the ASTs storing them in their constants.
+     */
+    public SLTaintLabels getTaintLabels() {
+        return taintLabels;
+    }
+
+    /**
+     * Returns an assumption that holds while no context of this language has created a tainted
+     * value, {@see SLContext#notifyTainted()}. Unlike the context of a node, the language is constant
+     * for ASTs shared between contexts, so the assumption can be cached in the AST. Once one context
+     * creates a tainted value, the ASTs of every context leave their untainted fast paths.
+     */
+    public Assumption getUntaintedAssumption() {
+        return untainted;
+    }
+
     private static final LanguageReference<SLLanguage> REFERENCE = LanguageReference.create(SLLanguage.class);
 
     public static SLLanguage get(Node node) {
@@ -411,6 +520,28 @@ public final class SLLanguage extends TruffleLanguage<SLContext> {
         EXTERNAL_BUILTINS.add(builtin);
     }
 
+    private static volatile SLTaintReporter.Handler externalTaintViolationHandler;
+
+    /**
+     * Installs the handler receiving the taint violations of contexts created afterwards, unless
+     * they report to a {@link #TaintViolationLog file}. Sinks do not block while violations are
+     * reported.
+     *
+     * @param handler the handler, {@code null} to make sinks throw on violations again
+     */
+    public static void installTaintViolationHandler(SLTaintReporter.Handler handler) {
+        externalTaintViolationHandler = handler;
+    }
+
+    public static SLTaintReporter.Handler getTaintViolationHandler() {
+        return externalTaintViolationHandler;
+    }
+
+    @Override
+    protected void disposeContext(SLContext context) {
+        context.closeTaintReporter();
+    }
+
     @Override
     protected void exitContext(SLContext context, ExitMode exitMode, int exitCode) {
         /*
@@ -49,6 +49,7 @@ import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
 import com.oracle.truffle.sl.runtime.SLContext;
 import com.oracle.truffle.sl.runtime.SLFunctionRegistry;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 /**
  * Base class for all builtin functions. It contains the Truffle DSL annotation {@link NodeChild}
@@ -87,4 +88,19 @@ public abstract class SLBuiltinNode extends SLExpressionNode {
     }
 
     protected abstract Object execute(VirtualFrame frame);
+
+    /**
+     * Numbers are passed to builtins boxed, tainted ones as {@link SLTaintedNumber}. Builtins taking
+     * a {@code long}, e.g. an index or a count, accept both, {@see #longValue(Object)}.
+     */
+    protected static boolean isLongValue(Object value) {
+        return value instanceof Long || value instanceof SLTaintedNumber;
+    }
+
+    /**
+     * The taint of a number used as index or count does not flow into the result of a builtin.
+     */
+    protected static long longValue(Object value) {
+        return value instanceof SLTaintedNumber ? ((SLTaintedNumber) value).getValue() : (long) value;
+    }
 }
@@ -51,9 +51,9 @@ import com.oracle.truffle.sl.runtime.SLNull;
 @NodeInfo(shortName = "exit")
 public abstract class SLExitBuiltin extends SLBuiltinNode {
 
-    @Specialization
-    protected Object execute(long exitCode) {
-        SLContext.get(this).getEnv().getContext().closeExited(this, (int) exitCode);
+    @Specialization(guards = "isLongValue(exitCode)")
+    protected Object execute(Object exitCode) {
+        SLContext.get(this).getEnv().getContext().closeExited(this, (int) longValue(exitCode));
         return SLNull.SINGLETON;
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.sl.builtins;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLArray;
+import com.oracle.truffle.sl.runtime.SLContext;
+
+/**
+ * Builtin function that reads up to a given number of lines from the
+ * {@link SLContext#getInput() standard input} at once, instead of calling {@code readln} once per
+ * line. Returns an {@link SLArray} of the lines, which are tainted like the result of
+ * {@link SLReadlnBuiltin}. The array is shorter than requested at the end of the input.
+ */
+@NodeInfo(shortName = "readLines")
+public abstract class SLReadLinesBuiltin extends SLBuiltinNode {
+
+    @Specialization(guards = "isLongValue(lineCount)")
+    public SLArray readLines(Object lineCount) {
+        long count = longValue(lineCount);
+        if (count < 0) {
+            throw new SLException("readLines expects a non-negative number of lines.", this);
+        }
+        return doRead(SLContext.get(this), count);
+    }
+
+    @Fallback
+    @SuppressWarnings("unused")
+    public Object invalidCount(Object count) {
+        throw new SLException("readLines expects the number of lines to read.", this);
+    }
+
+    @TruffleBoundary
+    private SLArray doRead(SLContext context, long count) {
+        BufferedReader in = context.getInput();
+        SLArray lines = new SLArray(SLLanguage.get(this).getTaintLabels());
+        try {
+            for (long i = 0; i < count; i++) {
+                String line = in.readLine();
+                if (line == null) {
+                    break;
+                }
+                lines.push(SLReadlnBuiltin.taintLine(context, line));
+            }
+        } catch (IOException ex) {
+            throw new SLException(ex.getMessage(), this);
+        }
+        return lines;
+    }
+}
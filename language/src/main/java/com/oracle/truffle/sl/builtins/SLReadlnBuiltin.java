@@ -48,16 +48,21 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.runtime.SLContext;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
 
 /**
- * Builtin function that reads a String from the {@link SLContext#getInput() standard input}.
+ * Builtin function that reads a String from the {@link SLContext#getInput() standard input}. If
+ * {@link com.oracle.truffle.sl.SLLanguage#InputTaint} is set, the line is returned as a
+ * {@link SLString} tainted with its label as a single run, independent of the length of the line.
  */
 @NodeInfo(shortName = "readln")
 public abstract class SLReadlnBuiltin extends SLBuiltinNode {
 
     @Specialization
-    public String readln() {
-        String result = doRead(SLContext.get(this).getInput());
+    public Object readln() {
+        SLContext context = SLContext.get(this);
+        String result = doRead(context.getInput());
         if (result == null) {
             /*
              * We do not have a sophisticated end of file handling, so returning an empty string is
@@ -66,7 +71,21 @@ public abstract class SLReadlnBuiltin extends SLBuiltinNode {
              */
             result = "";
         }
-        return result;
+        return taintLine(context, result);
+    }
+
+    /**
+     * Taints a line read from the standard input with the input label of the context.
+     *
+     * @return the line, an {@link SLString} if the input is tainted and the line is not empty
+     */
+    static Object taintLine(SLContext context, String line) {
+        int labelSetId = context.getInputLabelSetId();
+        if (labelSetId == SLTaintRanges.UNTAINTED || line.isEmpty()) {
+            return line;
+        }
+        context.notifyTainted();
+        return new SLString(line, SLTaintRanges.of(line.length(), labelSetId));
     }
 
     @TruffleBoundary
@@ -2,11 +2,15 @@ package com.oracle.truffle.sl.builtins.taint;
 
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.SLLanguage;
 import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLContext;
 import com.oracle.truffle.sl.runtime.SLNull;
 import com.oracle.truffle.sl.runtime.SLString;
-
-import java.util.Arrays;
+import com.oracle.truffle.sl.runtime.SLTaintLabels;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 @NodeInfo(shortName = "addTaint")
 public abstract class SLAddTaintBuiltin extends SLBuiltinNode {
@@ -14,27 +18,51 @@ public abstract class SLAddTaintBuiltin extends SLBuiltinNode {
   /**
    * Default taint value if none is supplied.
    */
-  private static final String TAINT = "DEFAULT_TAINT";
+  static final String TAINT = "DEFAULT_TAINT";
 
   /**
    * Taints the value passed using the provided taint.
-   * Only {@link SLString}s and {@link String}s can be tainted.
+   * {@link SLString}s, {@link String}s and numbers fitting into a {@code long} can be tainted.
+   * Labels already carried by the value are kept, i.e. the taint is added to them.
    * <p>
    * If the param {@code taint} is not supplied, the default taint {@link SLAddTaintBuiltin#TAINT} is used.
    * This is a hacky solution, as Simple Language provides {@code NULL} as argument if no second argument is used.
+   * Labels must be strings, numbers or booleans, {@see SLTaintLabels#toLabel(Object)}.
    * @param value to be tainted
    * @param taint taint marker
    * @return the tainted {@link SLString}
    */
   @Specialization
   public SLString addTaint(String value, Object taint) {
-    Object[] taintArr = new Object[value.length()];
-    Arrays.fill(taintArr, taint == SLNull.SINGLETON ? TAINT : taint);
-    return new SLString(value, taintArr);
+    return new SLString(value, SLTaintRanges.of(value.length(), labelSetId(taint)));
   }
 
   @Specialization
   public SLString addTaint(SLString value, Object taint) {
-    return value.addTaint(taint == SLNull.SINGLETON ? TAINT : taint);
+    return value.addTaint(labelSetId(taint), SLLanguage.get(this).getTaintLabels());
+  }
+
+  /**
+   * The tainted number is unboxed by the calling function, its taint is kept in a shadow slot,
+   * {@see com.oracle.truffle.sl.nodes.SLShadowTaint}.
+   */
+  @Specialization
+  public SLTaintedNumber addTaint(SLTaintedNumber value, Object taint) {
+    int joined = SLLanguage.get(this).getTaintLabels().join(value.getLabelSetId(), labelSetId(taint));
+    return new SLTaintedNumber(value.getValue(), joined);
+  }
+
+  @Specialization
+  public SLTaintedNumber addTaint(long value, Object taint) {
+    return new SLTaintedNumber(value, labelSetId(taint));
+  }
+
+  private int labelSetId(Object taint) {
+    Object label = taint == SLNull.SINGLETON ? TAINT : SLTaintLabels.toLabel(taint);
+    if (label == null) {
+      throw new SLException("Taint labels must be strings, numbers or booleans.", this);
+    }
+    SLContext.get(this).notifyTainted();
+    return SLLanguage.get(this).getTaintLabels().internSet(label);
   }
 }
@@ -0,0 +1,40 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLString;
+
+@NodeInfo(shortName = "charAt")
+public abstract class SLCharAtBuiltin extends SLBuiltinNode {
+
+  /**
+   * Returns the character at the given index as a string of length {@code 1}.
+   * Characters of {@link SLString}s keep their taint.
+   * @param value possibly tainted {@link String}
+   * @param index of the character, the taint of a tainted index is ignored
+   * @return the character
+   */
+  @Specialization(guards = "isLongValue(index)")
+  @TruffleBoundary
+  public String charAt(String value, Object index) {
+    long position = longValue(index);
+    checkIndex(position, value.length());
+    return String.valueOf(value.charAt((int) position));
+  }
+
+  @Specialization(guards = "isLongValue(index)")
+  public SLString charAt(SLString value, Object index) {
+    long position = longValue(index);
+    checkIndex(position, value.length());
+    return value.charAt((int) position);
+  }
+
+  private void checkIndex(long index, int length) {
+    if (index < 0 || index >= length) {
+      throw new SLException("Character index is out of bounds.", this);
+    }
+  }
+}
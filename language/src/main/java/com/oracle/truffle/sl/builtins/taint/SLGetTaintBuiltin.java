@@ -1,13 +1,18 @@
 package com.oracle.truffle.sl.builtins.taint;
 
-import java.util.Arrays;
-
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLLanguage;
 import com.oracle.truffle.sl.builtins.SLBuiltinNode;
 import com.oracle.truffle.sl.runtime.InteropArray;
+import com.oracle.truffle.sl.runtime.InteropTaintArray;
+import com.oracle.truffle.sl.runtime.SLArray;
 import com.oracle.truffle.sl.runtime.SLNull;
 import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintLabels;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 @NodeInfo(shortName = "getTaint")
 public abstract class SLGetTaintBuiltin extends SLBuiltinNode {
@@ -18,14 +23,45 @@ public abstract class SLGetTaintBuiltin extends SLBuiltinNode {
    * @return the taint marker
    */
   @Specialization
-  public InteropArray getTaint(String value) {
-    Object[] taintArr = new Object[value.length()];
-    Arrays.fill(taintArr, SLNull.SINGLETON);
-    return new InteropArray(taintArr);
+  public InteropTaintArray getTaint(String value) {
+    return new InteropTaintArray(SLTaintRanges.NONE, value.length(), SLLanguage.get(this).getTaintLabels());
+  }
+
+  @Specialization
+  public InteropTaintArray getTaint(SLString value) {
+    return new InteropTaintArray(value.getTaint(), value.length(), SLLanguage.get(this).getTaintLabels());
+  }
+
+  /**
+   * Returns the labels of every element of an {@link SLArray}, i.e. the union of the labels of all
+   * characters of the element, or {@code NULL} for untainted elements.
+   */
+  @Specialization
+  public InteropArray getTaint(SLArray value) {
+    return elementLabels(value, SLLanguage.get(this).getTaintLabels());
+  }
+
+  /**
+   * Returns the labels of a tainted number: the label itself for a single label, otherwise an array
+   * of labels.
+   */
+  @Specialization
+  public Object getTaint(SLTaintedNumber value) {
+    return SLLanguage.get(this).getTaintLabels().toInterop(value.getLabelSetId());
   }
 
   @Specialization
-  public InteropArray getTaint(SLString value) {
-    return new InteropArray(value.getTaint());
+  public SLNull getTaint(long value) {
+    return SLNull.SINGLETON;
+  }
+
+  @TruffleBoundary
+  private static InteropArray elementLabels(SLArray value, SLTaintLabels labels) {
+    Object[] result = new Object[value.getSize()];
+    for (int i = 0; i < result.length; i++) {
+      int labelSetId = value.getLabelSetId(i);
+      result[i] = labelSetId == SLTaintRanges.UNTAINTED ? SLNull.SINGLETON : labels.toInterop(labelSetId);
+    }
+    return new InteropArray(result);
   }
 }
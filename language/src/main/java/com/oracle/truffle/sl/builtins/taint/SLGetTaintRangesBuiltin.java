@@ -0,0 +1,29 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.InteropTaintRanges;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+
+@NodeInfo(shortName = "getTaintRanges")
+public abstract class SLGetTaintRangesBuiltin extends SLBuiltinNode {
+
+  /**
+   * Retrieves the tainted ranges of the given argument as {@code [start, end, label]} triples,
+   * {@see InteropTaintRanges}. Adjacent characters carrying the same labels form a single range.
+   * @param value possibly tainted {@link String}
+   * @return the tainted ranges
+   */
+  @Specialization
+  public InteropTaintRanges getTaintRanges(String value) {
+    return new InteropTaintRanges(SLTaintRanges.NONE, SLLanguage.get(this).getTaintLabels());
+  }
+
+  @Specialization
+  public InteropTaintRanges getTaintRanges(SLString value) {
+    return new InteropTaintRanges(value.getTaint(), SLLanguage.get(this).getTaintLabels());
+  }
+}
@@ -0,0 +1,37 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLContext;
+import com.oracle.truffle.sl.runtime.SLNull;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintLabels;
+
+@NodeInfo(shortName = "hasTaintLabel")
+public abstract class SLHasTaintLabelBuiltin extends SLBuiltinNode {
+
+  /**
+   * Returns whether any character of the given argument carries the given label.
+   * If the param {@code label} is not supplied, the default taint {@link SLAddTaintBuiltin#TAINT} is checked.
+   * @param value possibly tainted {@link String}
+   * @param label taint marker
+   * @return {@code true} if a character carries the label
+   */
+  @Specialization
+  public boolean hasTaintLabel(String value, Object label) {
+    return false;
+  }
+
+  @Specialization
+  public boolean hasTaintLabel(SLString value, Object label) {
+    if (!value.isTainted()) {
+      return false;
+    }
+    SLTaintLabels labels = SLLanguage.get(this).getTaintLabels();
+    Object key = label == SLNull.SINGLETON ? SLAddTaintBuiltin.TAINT : SLTaintLabels.toLabel(label);
+    int labelId = key == null ? -1 : labels.find(key);
+    return labelId >= 0 && value.hasTaintLabel(labelId, labels, SLContext.get(this).getTaintIndexThreshold());
+  }
+}
@@ -3,7 +3,9 @@ package com.oracle.truffle.sl.builtins.taint;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLArray;
 import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 @NodeInfo(shortName = "isTainted")
 public abstract class SLIsTaintedBuiltin extends SLBuiltinNode {
@@ -23,4 +25,25 @@ public abstract class SLIsTaintedBuiltin extends SLBuiltinNode {
   public boolean isTainted(SLString value) {
     return value.isTainted();
   }
+
+  /**
+   * An {@link SLArray} is tainted if at least one of its elements is tainted.
+   */
+  @Specialization
+  public boolean isTainted(SLArray value) {
+    return value.isTainted();
+  }
+
+  /**
+   * Numbers are only passed to builtins as {@link SLTaintedNumber} if they are tainted.
+   */
+  @Specialization
+  public boolean isTainted(SLTaintedNumber value) {
+    return true;
+  }
+
+  @Specialization
+  public boolean isTainted(long value) {
+    return false;
+  }
 }
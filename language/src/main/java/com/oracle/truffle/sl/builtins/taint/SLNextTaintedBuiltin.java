@@ -0,0 +1,26 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLString;
+
+@NodeInfo(shortName = "nextTainted")
+public abstract class SLNextTaintedBuiltin extends SLBuiltinNode {
+
+  /**
+   * Returns the index of the first tainted character at or after the given index.
+   * @param value possibly tainted {@link String}
+   * @param index of the first character to consider
+   * @return the index of the tainted character, {@code -1} if there is none
+   */
+  @Specialization(guards = "isLongValue(index)")
+  public long nextTainted(String value, Object index) {
+    return -1;
+  }
+
+  @Specialization(guards = "isLongValue(index)")
+  public long nextTainted(SLString value, Object index) {
+    return value.nextTainted((int) Math.max(0, Math.min(longValue(index), value.length())));
+  }
+}
@@ -3,12 +3,16 @@ package com.oracle.truffle.sl.builtins.taint;
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.builtins.SLBuiltinNode;
 import com.oracle.truffle.sl.runtime.SLBigNumber;
+import com.oracle.truffle.sl.runtime.SLNull;
 import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 @NodeInfo(shortName = "removeTaint")
 public abstract class SLRemoveTaintBuiltin extends SLBuiltinNode {
@@ -20,6 +24,19 @@ public abstract class SLRemoveTaintBuiltin extends SLBuiltinNode {
    * @param to first taint marker not to remove
    * @throws UnsupportedMessageException
    */
+  @Specialization
+  public String removeTaint(String value, SLBigNumber from, SLBigNumber to) {
+    return value;
+  }
+
+  /**
+   * Removes the taint of a number. The range is ignored, as a number is tainted as a whole.
+   */
+  @Specialization
+  public long removeTaint(SLTaintedNumber value, Object from, Object to) {
+    return value.getValue();
+  }
+
   @Specialization
   public SLString removeTaint(SLString value, SLBigNumber from, SLBigNumber to,
                   @CachedLibrary(limit = "3") InteropLibrary fromLib,
@@ -31,8 +48,40 @@ public abstract class SLRemoveTaintBuiltin extends SLBuiltinNode {
     }
   }
 
-  @Specialization
-  public String removeTaint(String value, SLBigNumber from, SLBigNumber to) {
+  /**
+   * Removes all taint markers within several ranges at once, without creating an intermediate
+   * string per range. The ranges are passed as a single array of pairs, i.e.
+   * {@code [from0, to0, from1, to1, ...]}.
+   * @param value possibly tainted {@link String}
+   * @param ranges array of ranges
+   * @param to unused, as the ranges are passed in a single argument
+   */
+  @Specialization(guards = "rangesLib.hasArrayElements(ranges)", limit = "3")
+  public String removeTaint(String value, Object ranges, SLNull to,
+                  @CachedLibrary("ranges") InteropLibrary rangesLib) {
     return value;
   }
+
+  @Specialization(guards = "rangesLib.hasArrayElements(ranges)", limit = "3")
+  public SLString removeTaint(SLString value, Object ranges, SLNull to,
+                  @CachedLibrary("ranges") InteropLibrary rangesLib,
+                  @CachedLibrary(limit = "3") InteropLibrary boundLib) {
+    return value.removeTaint(readBounds(ranges, rangesLib, boundLib));
+  }
+
+  private int[] readBounds(Object ranges, InteropLibrary rangesLib, InteropLibrary boundLib) {
+    try {
+      long size = rangesLib.getArraySize(ranges);
+      if (size % 2 != 0) {
+        throw new SLException("Taint ranges must consist of pairs of from and to.", this);
+      }
+      int[] bounds = new int[(int) size];
+      for (int i = 0; i < bounds.length; i++) {
+        bounds[i] = boundLib.asInt(rangesLib.readArrayElement(ranges, i));
+      }
+      return bounds;
+    } catch (UnsupportedMessageException | InvalidArrayIndexException e) {
+      throw new SLException("Taint ranges must be an array of numbers.", this);
+    }
+  }
 }
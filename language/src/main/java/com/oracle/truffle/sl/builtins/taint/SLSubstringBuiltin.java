@@ -0,0 +1,44 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLString;
+
+@NodeInfo(shortName = "substring")
+public abstract class SLSubstringBuiltin extends SLBuiltinNode {
+
+  /**
+   * Returns the characters of the given argument within the given range.
+   * Substrings of {@link SLString}s keep the taint of their characters and share it with the
+   * original string instead of copying it, {@see SLString#substring(int, int)}.
+   * @param value possibly tainted {@link String}
+   * @param from first character of the substring, the taint of a tainted index is ignored
+   * @param to first character not part of the substring
+   * @return the substring
+   */
+  @Specialization(guards = {"isLongValue(from)", "isLongValue(to)"})
+  @TruffleBoundary
+  public String substring(String value, Object from, Object to) {
+    long start = longValue(from);
+    long end = longValue(to);
+    checkRange(start, end, value.length());
+    return value.substring((int) start, (int) end);
+  }
+
+  @Specialization(guards = {"isLongValue(from)", "isLongValue(to)"})
+  public SLString substring(SLString value, Object from, Object to) {
+    long start = longValue(from);
+    long end = longValue(to);
+    checkRange(start, end, value.length());
+    return value.substring((int) start, (int) end);
+  }
+
+  private void checkRange(long from, long to, int length) {
+    if (from < 0 || from > to || to > length) {
+      throw new SLException("Substring range is out of bounds.", this);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.InteropArray;
+import com.oracle.truffle.sl.runtime.SLContext;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintLabels;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+
+@NodeInfo(shortName = "taintLabelsIn")
+public abstract class SLTaintLabelsInBuiltin extends SLBuiltinNode {
+
+  private static final InteropArray EMPTY = new InteropArray(new Object[0]);
+
+  /**
+   * Retrieves the distinct labels of all characters within the given range.
+   * Strings with many runs answer the query from an index, {@see SLTaintRanges#labelSetIn(int, int, SLTaintLabels, int)}.
+   * @param value possibly tainted {@link String}
+   * @param from first character of the range
+   * @param to first character not part of the range
+   * @return the labels
+   */
+  @Specialization(guards = {"isLongValue(from)", "isLongValue(to)"})
+  public InteropArray taintLabelsIn(String value, Object from, Object to) {
+    return EMPTY;
+  }
+
+  @Specialization(guards = {"isLongValue(from)", "isLongValue(to)"})
+  public InteropArray taintLabelsIn(SLString value, Object from, Object to) {
+    SLTaintLabels labels = SLLanguage.get(this).getTaintLabels();
+    int labelSetId = value.labelSetIn(clamp(from, value), clamp(to, value), labels, SLContext.get(this).getTaintIndexThreshold());
+    if (labelSetId == SLTaintRanges.UNTAINTED) {
+      return EMPTY;
+    }
+    return labels.toLabels(labelSetId);
+  }
+
+  private static int clamp(Object index, SLString value) {
+    return (int) Math.max(0, Math.min(longValue(index), value.length()));
+  }
+}
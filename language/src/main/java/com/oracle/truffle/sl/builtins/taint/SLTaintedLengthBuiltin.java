@@ -0,0 +1,25 @@
+package com.oracle.truffle.sl.builtins.taint;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.sl.builtins.SLBuiltinNode;
+import com.oracle.truffle.sl.runtime.SLString;
+
+@NodeInfo(shortName = "taintedLength")
+public abstract class SLTaintedLengthBuiltin extends SLBuiltinNode {
+
+  /**
+   * Returns the number of tainted characters of the given argument.
+   * @param value possibly tainted {@link String}
+   * @return the number of tainted characters
+   */
+  @Specialization
+  public long taintedLength(String value) {
+    return 0;
+  }
+
+  @Specialization
+  public long taintedLength(SLString value) {
+    return value.isTainted() ? value.getTaintedLength() : 0;
+  }
+}
@@ -40,7 +40,11 @@
  */
 package com.oracle.truffle.sl.nodes;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
 
 /**
  * Utility base class for operations that take two arguments (per convention called "left" and
@@ -50,4 +54,42 @@ import com.oracle.truffle.api.dsl.NodeChild;
 @NodeChild("leftNode")
 @NodeChild("rightNode")
 public abstract class SLBinaryNode extends SLExpressionNode {
+
+    /**
+     * The auxiliary frame slot holding the taint of the last result, {@see SLShadowTaint}.
+     * Allocated when the first tainted result is produced.
+     */
+    @CompilationFinal private int taintSlot = -1;
+
+    /**
+     * The operand nodes, exposed so that chains of "+" can be merged into a
+     * {@link com.oracle.truffle.sl.nodes.expression.SLConcatNode} and so that the taint of the
+     * operands can be read.
+     */
+    public abstract SLExpressionNode getLeftNode();
+
+    public abstract SLExpressionNode getRightNode();
+
+    /**
+     * Called by arithmetic operations on numbers: the taint of the result is the union of the taint
+     * of both operands. No-op unless the function has seen tainted primitives.
+     */
+    protected final void propagateTaint(VirtualFrame frame) {
+        if (SLShadowTaint.isActive(this)) {
+            int taint = SLShadowTaint.join(this, SLShadowTaint.taintOf(frame, getLeftNode()), SLShadowTaint.taintOf(frame, getRightNode()));
+            if (taintSlot < 0) {
+                if (taint == SLTaintRanges.UNTAINTED) {
+                    return;
+                }
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                taintSlot = SLShadowTaint.allocateResult(frame, this);
+            }
+            SLShadowTaint.setResult(frame, taintSlot, taint);
+        }
+    }
+
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return taintSlot < 0 ? SLTaintRanges.UNTAINTED : SLShadowTaint.getResult(frame, taintSlot);
+    }
 }
@@ -48,6 +48,7 @@ import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.instrumentation.Tag;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
 
 /**
  * Base class for all SL nodes that produce a value and therefore benefit from type specialization.
@@ -96,6 +97,17 @@ public abstract class SLExpressionNode extends SLStatementNode {
         hasExpressionTag = true;
     }
 
+    /**
+     * Returns the taint of the primitive value this node produced last in {@code frame}. Only
+     * meaningful while the function {@link SLShadowTaint#isActive is tracking shadow taint}.
+     * Overridden by nodes that produce or forward tainted primitives.
+     *
+     * @return the label set id, {@link SLTaintRanges#UNTAINTED} if the value is not tainted
+     */
+    public int getResultTaint(VirtualFrame frame) {
+        return SLTaintRanges.UNTAINTED;
+    }
+
     /*
      * Execute methods for specialized types. They all follow the same pattern: they call the
      * generic execution method and then expect a result of their return type. Type-specialized
@@ -41,9 +41,12 @@
 package com.oracle.truffle.sl.nodes;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.InstrumentableNode;
@@ -58,7 +61,9 @@ import com.oracle.truffle.sl.builtins.SLBuiltinNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLBlockNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLFunctionBodyNode;
 import com.oracle.truffle.sl.nodes.local.SLReadArgumentNode;
+import com.oracle.truffle.sl.nodes.taint.SLTaintedCallNode;
 import com.oracle.truffle.sl.nodes.local.SLWriteLocalVariableNode;
+import com.oracle.truffle.sl.runtime.SLArgumentTaint;
 import com.oracle.truffle.sl.runtime.SLContext;
 
 /**
@@ -81,11 +86,47 @@ public class SLRootNode extends RootNode {
 
     @CompilerDirectives.CompilationFinal(dimensions = 1) private volatile SLWriteLocalVariableNode[] argumentNodesCache;
 
+    /** The taint of the primitive values of the function, {@code null} for builtins. */
+    private final SLShadowTaint shadowTaint;
+
+    /**
+     * A copy of the body taken before the first execution, from which splits are created, see
+     * {@link #cloneUninitialized()}. {@code null} for builtins, which are never split.
+     */
+    private final SLExpressionNode uninitializedBodyNode;
+
+    /**
+     * The taint signature of the arguments this function may receive, {@see SLArgumentTaint}. A split
+     * is only called with the signature it was created for, other functions with any arguments.
+     */
+    @CompilerDirectives.CompilationFinal private int taintedArguments = SLArgumentTaint.ALL;
+
+    /** The function this root node is a split of, this root node itself if it is not a split. */
+    private SLRootNode original = this;
+
+    /** The splits of this function by taint signature, {@code null} until the first split. */
+    private Map<Integer, SLRootNode> taintedSplits;
+
     public SLRootNode(SLLanguage language, FrameDescriptor frameDescriptor, SLExpressionNode bodyNode, SourceSection sourceSection, String name) {
+        this(language, frameDescriptor, bodyNode, sourceSection, name, null);
+    }
+
+    public SLRootNode(SLLanguage language, FrameDescriptor frameDescriptor, SLExpressionNode bodyNode, SourceSection sourceSection, String name, SLShadowTaint shadowTaint) {
+        this(language, frameDescriptor, bodyNode, sourceSection, name, shadowTaint, shadowTaint == null ? null : NodeUtil.cloneNode(bodyNode));
+    }
+
+    private SLRootNode(SLLanguage language, FrameDescriptor frameDescriptor, SLExpressionNode bodyNode, SourceSection sourceSection, String name, SLShadowTaint shadowTaint,
+                    SLExpressionNode uninitializedBodyNode) {
         super(language, frameDescriptor);
         this.bodyNode = bodyNode;
         this.name = name;
         this.sourceSection = sourceSection;
+        this.shadowTaint = shadowTaint;
+        this.uninitializedBodyNode = uninitializedBodyNode;
+    }
+
+    public SLShadowTaint getShadowTaint() {
+        return shadowTaint;
     }
 
     @Override
@@ -122,6 +163,69 @@ public class SLRootNode extends RootNode {
         return "root " + name;
     }
 
+    /**
+     * Returns the root node executed for calls passing arguments with the taint signature
+     * {@code signature}, {@see SLTaintedCallNode}. The first such call splits this function, so that
+     * the caches of this AST only ever see the arguments of untainted calls and stay specialized on
+     * plain values, e.g. {@link String}. Each split in turn only sees tainted values at the argument
+     * positions of its signature, {@see #isArgumentTainted(int)}. Builtins are not split, neither are
+     * functions once the split limit of the language is reached, {@see
+     * SLLanguage#reserveTaintSplit()}. A function that could not be split is split on a later call if
+     * the limit allows it again, so the refusal is not stored.
+     *
+     * @param signature the taint signature of the arguments, not zero
+     * @return the split, or this root node if it is not split
+     */
+    @TruffleBoundary
+    public SLRootNode getTaintedSplit(int signature) {
+        if (original != this) {
+            return original.getTaintedSplit(signature);
+        }
+        synchronized (this) {
+            SLRootNode split = taintedSplits == null ? null : taintedSplits.get(signature);
+            if (split == null) {
+                if (uninitializedBodyNode == null || !SLLanguage.get(this).reserveTaintSplit()) {
+                    return this;
+                }
+                split = cloneUninitialized();
+                split.taintedArguments = signature;
+                if (taintedSplits == null) {
+                    taintedSplits = new HashMap<>();
+                }
+                taintedSplits.put(signature, split);
+            }
+            return split;
+        }
+    }
+
+    /**
+     * @param index the position of an argument
+     * @return whether this function may receive a tainted value at {@code index}
+     */
+    public boolean isArgumentTainted(int index) {
+        return (taintedArguments & SLArgumentTaint.bit(index)) != 0;
+    }
+
+    @Override
+    protected boolean isCloneUninitializedSupported() {
+        return uninitializedBodyNode != null;
+    }
+
+    /**
+     * Creates a copy of this function from the {@link #uninitializedBodyNode body as parsed}, i.e.
+     * without the specializations and caches of this root node. The copy maintains its own shadow
+     * taint.
+     */
+    @Override
+    protected SLRootNode cloneUninitialized() {
+        SLRootNode copy = new SLRootNode(getLanguage(SLLanguage.class), getFrameDescriptor(), NodeUtil.cloneNode(uninitializedBodyNode), sourceSection, name, new SLShadowTaint(),
+                        uninitializedBodyNode);
+        copy.isCloningAllowed = isCloningAllowed;
+        copy.original = original;
+        copy.taintedArguments = taintedArguments;
+        return copy;
+    }
+
     public final SLWriteLocalVariableNode[] getDeclaredArguments() {
         SLWriteLocalVariableNode[] argumentNodes = argumentNodesCache;
         if (argumentNodes == null) {
@@ -0,0 +1,179 @@
+package com.oracle.truffle.sl.nodes;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.InstrumentableNode.WrapperNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
+
+/**
+ * Shadow taint of the primitive values of an SL function, owned by the {@link SLRootNode} of every
+ * function parsed, {@see #get(Node)}.
+ * <p>
+ * Taint of strings is carried by the {@link com.oracle.truffle.sl.runtime.SLString} itself. A
+ * {@code long} cannot carry taint without being boxed, which would defeat the primitive frame slots
+ * of {@link com.oracle.truffle.sl.nodes.local.SLWriteLocalVariableNode}. Instead, the label set id
+ * of primitive values is stored next to them, in auxiliary frame slots:
+ * <ul>
+ *   <li>every local variable has a shadow slot, holding the taint of its current value,</li>
+ *   <li>every node producing a primitive value, e.g. an arithmetic node, has a result slot, holding
+ *   the taint of its last result in this frame. It is read by the parent via
+ *   {@link SLExpressionNode#getResultTaint}.</li>
+ * </ul>
+ * Untainted values are represented by {@code null} slots, so a frame that never sees a tainted
+ * value never writes an auxiliary slot.
+ * <p>
+ * Tainted primitives only escape a frame as {@link SLTaintedNumber}, {@see #box}, which is unwrapped
+ * by the receiving function or by the node reading it back from an object. Until a function sees such a value for the first time, its shadow slots
+ * are not allocated and the {@link #untainted assumption} folds all shadow taint code away.
+ */
+public final class SLShadowTaint {
+
+  private final Assumption untainted = Truffle.getRuntime().createAssumption("no tainted primitives");
+
+  /**
+   * The shadow slot of every local variable, allocated when the function sees its first tainted
+   * primitive.
+   */
+  @CompilationFinal(dimensions = 1) private int[] localSlots;
+
+  /**
+   * The lookup is constant folded in compiled code, as the parent of a node is compilation final.
+   * @param node a node
+   * @return the shadow taint of the function of {@code node}, {@code null} for functions without
+   *         shadow taint, e.g. builtins
+   */
+  public static SLShadowTaint get(Node node) {
+    RootNode root = node.getRootNode();
+    return root instanceof SLRootNode ? ((SLRootNode) root).getShadowTaint() : null;
+  }
+
+  /**
+   * @return whether the function of {@code node} has seen a tainted primitive, i.e. whether its
+   *         shadow slots are maintained
+   */
+  public static boolean isActive(Node node) {
+    SLShadowTaint shadow = get(node);
+    return shadow != null && !shadow.untainted.isValid();
+  }
+
+  /**
+   * Starts maintaining the shadow slots of the function of {@code node}, as a tainted primitive was
+   * seen. Invalidates the code compiled without shadow taint.
+   * @return whether the shadow slots are maintained, {@code false} if the function has no shadow
+   *         taint
+   */
+  public static boolean activate(Node node, Frame frame) {
+    SLShadowTaint shadow = get(node);
+    if (shadow == null) {
+      return false;
+    }
+    if (shadow.untainted.isValid()) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      shadow.allocate(frame.getFrameDescriptor());
+    }
+    return true;
+  }
+
+  @TruffleBoundary
+  private synchronized void allocate(FrameDescriptor descriptor) {
+    if (!untainted.isValid()) {
+      return;
+    }
+    int[] slots = new int[descriptor.getNumberOfSlots()];
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = descriptor.findOrAddAuxiliarySlot(new Object());
+    }
+    localSlots = slots;
+    untainted.invalidate();
+  }
+
+  /**
+   * @return the taint of the value of the local variable in {@code slot}
+   */
+  public static int getLocal(Node node, Frame frame, int slot) {
+    SLShadowTaint shadow = get(node);
+    if (shadow == null || shadow.localSlots == null) {
+      return SLTaintRanges.UNTAINTED;
+    }
+    return getResult(frame, shadow.localSlots[slot]);
+  }
+
+  /**
+   * Sets the taint of the value of the local variable in {@code slot}. Must only be called while
+   * the function {@link #isActive(Node) is active}.
+   */
+  public static void setLocal(Node node, Frame frame, int slot, int labelSetId) {
+    setResult(frame, get(node).localSlots[slot], labelSetId);
+  }
+
+  /**
+   * Allocates the result slot of {@code producer}.
+   * @return the auxiliary slot to pass to {@link #setResult} and {@link #getResult}
+   */
+  @TruffleBoundary
+  public static int allocateResult(Frame frame, Node producer) {
+    return frame.getFrameDescriptor().findOrAddAuxiliarySlot(producer);
+  }
+
+  public static int getResult(Frame frame, int auxiliarySlot) {
+    Object labelSetId = frame.getAuxiliarySlot(auxiliarySlot);
+    return labelSetId == null ? SLTaintRanges.UNTAINTED : (int) labelSetId;
+  }
+
+  public static void setResult(Frame frame, int auxiliarySlot, int labelSetId) {
+    frame.setAuxiliarySlot(auxiliarySlot, labelSetId == SLTaintRanges.UNTAINTED ? null : labelSetId);
+  }
+
+  /**
+   * Returns the taint of the value last produced by {@code child} in {@code frame}.
+   * @param child an operand, possibly wrapped by an instrument, or {@code null}
+   * @return the label set id, {@link SLTaintRanges#UNTAINTED} if the value is not tainted
+   */
+  public static int taintOf(VirtualFrame frame, Node child) {
+    Node node = child instanceof WrapperNode ? ((WrapperNode) child).getDelegateNode() : child;
+    if (node instanceof SLExpressionNode) {
+      return ((SLExpressionNode) node).getResultTaint(frame);
+    }
+    return SLTaintRanges.UNTAINTED;
+  }
+
+  /**
+   * Boxes a number produced by {@code child} as {@link SLTaintedNumber} if it is tainted, as the
+   * taint in the shadow slots of this frame is lost once the value escapes it, e.g. into another
+   * function, an object or a string.
+   * @param node the node passing the value on
+   * @param child the node that produced {@code value}
+   * @return the {@link SLTaintedNumber}, or {@code value} if it is not a tainted number
+   */
+  public static Object box(VirtualFrame frame, Node node, Node child, Object value) {
+    if (value instanceof Long && isActive(node)) {
+      int taint = taintOf(frame, child);
+      if (taint != SLTaintRanges.UNTAINTED) {
+        return new SLTaintedNumber((long) value, taint);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * @return the union of two taints, either of them may be {@link SLTaintRanges#UNTAINTED}
+   */
+  public static int join(Node node, int labelSetId, int otherLabelSetId) {
+    if (labelSetId == SLTaintRanges.UNTAINTED || labelSetId == otherLabelSetId) {
+      return otherLabelSetId;
+    } else if (otherLabelSetId == SLTaintRanges.UNTAINTED) {
+      return labelSetId;
+    }
+    return SLLanguage.get(node).getTaintLabels().join(labelSetId, otherLabelSetId);
+  }
+}
@@ -72,6 +72,12 @@ public abstract class SLStatementNode extends SLScopedNode implements Instrument
     private boolean hasStatementTag;
     private boolean hasRootTag;
 
+    /*
+     * Nodes created by materializeInstrumentableNodes are asked for their source section before
+     * they are adopted, so they cannot look it up from the root node and store it eagerly.
+     */
+    private SourceSection materializedSourceSection;
+
     /*
      * The creation of source section can be implemented lazily by looking up the root node source
      * and then creating the source section object using the indices stored in the node. This avoids
@@ -89,6 +95,9 @@ public abstract class SLStatementNode extends SLScopedNode implements Instrument
             // AST node without source
             return null;
         }
+        if (materializedSourceSection != null) {
+            return materializedSourceSection;
+        }
         RootNode rootNode = getRootNode();
         if (rootNode == null) {
             // not yet adopted yet
@@ -142,6 +151,12 @@ public abstract class SLStatementNode extends SLScopedNode implements Instrument
         this.sourceLength = length;
     }
 
+    // invoked by materializeInstrumentableNodes to set the source of the replacement nodes
+    public final void setMaterializedSourceSection(SourceSection section) {
+        setSourceSection(section.getCharIndex(), section.getCharLength());
+        this.materializedSourceSection = section;
+    }
+
     public final void setUnavailableSourceSection() {
         assert sourceCharIndex == NO_SOURCE : "source must only be set once";
         this.sourceCharIndex = UNAVAILABLE_SOURCE;
@@ -50,6 +50,7 @@ import com.oracle.truffle.api.dsl.TypeSystem;
 import com.oracle.truffle.sl.SLLanguage;
 import com.oracle.truffle.sl.runtime.SLBigNumber;
 import com.oracle.truffle.sl.runtime.SLNull;
+import com.oracle.truffle.sl.runtime.SLString;
 
 /**
  * The type system of SL, as explained in {@link SLLanguage}. Based on the {@link TypeSystem}
@@ -57,7 +58,7 @@ import com.oracle.truffle.sl.runtime.SLNull;
  * conversion methods for some types. In this class, we only cover types where the automatically
  * generated ones would not be sufficient.
  */
-@TypeSystem({long.class, boolean.class})
+@TypeSystem({long.class, boolean.class, String.class, SLString.class})
 public abstract class SLTypes {
 
     /**
@@ -94,4 +95,15 @@ public abstract class SLTypes {
     public static SLBigNumber castBigNumber(long value) {
         return new SLBigNumber(BigInteger.valueOf(value));
     }
+
+    /**
+     * Informs the Truffle DSL that a {@link String} value can be used in all specializations where
+     * a {@link SLString} is expected. A {@link String} is never tainted, so it is equivalent to an
+     * untainted {@link SLString}. Specializations for {@link String} must be declared before the
+     * ones for {@link SLString}, otherwise {@link String}s are wrapped needlessly.
+     */
+    @ImplicitCast
+    public static SLString castSLString(String value) {
+        return new SLString(value);
+    }
 }
@@ -43,6 +43,7 @@ package com.oracle.truffle.sl.nodes.controlflow;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.SLStatementNode;
 import com.oracle.truffle.sl.runtime.SLNull;
 
@@ -67,6 +68,8 @@ public final class SLReturnNode extends SLStatementNode {
         Object result;
         if (valueNode != null) {
             result = valueNode.executeGeneric(frame);
+            /* The taint of a number in the shadow slots of this frame must be passed to the caller. */
+            result = SLShadowTaint.box(frame, this, valueNode, result);
         } else {
             /*
              * Return statement that was not followed by an expression, so return the SL null value.
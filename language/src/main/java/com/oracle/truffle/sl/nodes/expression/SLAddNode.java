@@ -40,18 +40,25 @@
  */
 package com.oracle.truffle.sl.nodes.expression;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.ImplicitCast;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.SLLanguage;
 import com.oracle.truffle.sl.nodes.SLBinaryNode;
+import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.SLTypes;
 import com.oracle.truffle.sl.runtime.SLBigNumber;
 import com.oracle.truffle.sl.runtime.SLString;
 import com.oracle.truffle.sl.runtime.SLStringLibrary;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 /**
  * SL node that performs the "+" operation, which performs addition on arbitrary precision numbers,
@@ -66,10 +73,16 @@ import com.oracle.truffle.sl.runtime.SLStringLibrary;
 @NodeInfo(shortName = "+")
 public abstract class SLAddNode extends SLBinaryNode {
 
+    /**
+     * Performs the "+" operation on already evaluated operands. Used by {@link SLConcatNode} to fold
+     * operands that are not concatenated.
+     */
+    public abstract Object executeEvaluated(VirtualFrame frame, Object left, Object right);
+
     /**
      * Specialization for primitive {@code long} values. This is the fast path of the
      * arbitrary-precision arithmetic. We need to check for overflows of the addition, and switch to
-     * the {@link #add(SLBigNumber, SLBigNumber) slow path}. Therefore, we use an
+     * the {@link #add(VirtualFrame, SLBigNumber, SLBigNumber) slow path}. Therefore, we use an
      * {@link Math#addExact(long, long) addition method that throws an exception on overflow}. The
      * {@code rewriteOn} attribute on the {@link Specialization} annotation automatically triggers
      * the node rewriting on the exception.
@@ -82,8 +95,10 @@ public abstract class SLAddNode extends SLBinaryNode {
      * operand are {@code long} values.
      */
     @Specialization(rewriteOn = ArithmeticException.class)
-    protected long add(long left, long right) {
-        return Math.addExact(left, right);
+    protected long add(VirtualFrame frame, long left, long right) {
+        long result = Math.addExact(left, right);
+        propagateTaint(frame);
+        return result;
     }
 
     /**
@@ -94,16 +109,100 @@ public abstract class SLAddNode extends SLBinaryNode {
      * operand are {@link SLBigNumber} values. Because the type system defines an
      * {@link ImplicitCast implicit conversion} from {@code long} to {@link SLBigNumber} in
      * {@link SLTypes#castBigNumber(long)}, this specialization is also taken if the left or the
-     * right operand is a {@code long} value. Because the {@link #add(long, long) long}
+     * right operand is a {@code long} value. Because the {@link #add(VirtualFrame, long, long) long}
      * specialization} has the {@code rewriteOn} attribute, this specialization is also taken if
      * both input values are {@code long} values but the primitive addition overflows.
      */
     @Specialization
+    protected SLBigNumber add(VirtualFrame frame, SLBigNumber left, SLBigNumber right) {
+        propagateTaint(frame);
+        return addBigNumber(left, right);
+    }
+
     @TruffleBoundary
-    protected SLBigNumber add(SLBigNumber left, SLBigNumber right) {
+    private static SLBigNumber addBigNumber(SLBigNumber left, SLBigNumber right) {
         return new SLBigNumber(left.getValue().add(right.getValue()));
     }
 
+    /**
+     * Concatenation of untainted strings. The concatenation itself is behind a
+     * {@link TruffleBoundary}, as {@link String} concatenation cannot be partially evaluated.
+     */
+    @Specialization
+    protected String add(String left, String right) {
+        return concat(left, right);
+    }
+
+    /**
+     * Concatenations involving a taint tracked {@link SLString}. These specializations do not need
+     * a library dispatch, so hot concatenation sites are compiled to a direct call. A {@link String}
+     * operand would be accepted by {@link #add(SLString, SLString)} as well, via
+     * {@link SLTypes#castSLString(String) implicit cast}, but is not wrapped by the more specific
+     * specializations.
+     */
+    @Specialization
+    protected SLString add(SLString left, String right) {
+        return SLString.concatenate(left, right);
+    }
+
+    @Specialization
+    protected SLString add(String left, SLString right) {
+        return SLString.concatenate(left, right);
+    }
+
+    @Specialization
+    protected SLString add(SLString left, SLString right) {
+        return SLString.concatenate(left, right);
+    }
+
+    /**
+     * Concatenation while no context has created a tainted value yet, {@see
+     * SLLanguage#getUntaintedAssumption()}. All strings are untainted, so the operands are
+     * concatenated as plain {@link String}s without consulting the {@link SLStringLibrary}. The
+     * assumption belongs to the language, so it is cached here and checked by compiled code for
+     * free, even if this AST is shared between contexts. Once the first tainted value is created in
+     * any context, the specialization is removed and the specializations below take over. A context
+     * that stays untainted then pays the taint checks of the other contexts, which is the price of
+     * not looking up the context on every {@code +}.
+     */
+    @TruffleBoundary
+    @Specialization(guards = "isString(left) || isString(right)", assumptions = "getUntaintedAssumption()")
+    protected String addInUntaintedContext(Object left, Object right) {
+        return left.toString() + right.toString();
+    }
+
+    protected Assumption getUntaintedAssumption() {
+        return SLLanguage.get(this).getUntaintedAssumption();
+    }
+
+    protected static boolean isString(Object value) {
+        return value instanceof String || value instanceof SLString;
+    }
+
+    /**
+     * Concatenation of a string with a number that is tainted in the shadow slots of this frame. The
+     * number is boxed as {@link SLTaintedNumber}, whose string representation carries its taint.
+     */
+    @Specialization(guards = "isTaintedNumberConcatenation(frame, left, right)")
+    protected SLString addTaintedNumber(VirtualFrame frame, Object left, Object right,
+                        @CachedLibrary(limit = "3") SLStringLibrary leftLib,
+                        @CachedLibrary(limit = "3") SLStringLibrary rightLib) {
+        Object boxedLeft = SLShadowTaint.box(frame, this, getLeftNode(), left);
+        Object boxedRight = SLShadowTaint.box(frame, this, getRightNode(), right);
+        return SLString.concatenate(leftLib.asSLString(boxedLeft), rightLib.asSLString(boxedRight));
+    }
+
+    protected boolean isTaintedNumberConcatenation(VirtualFrame frame, Object left, Object right) {
+        if (!SLShadowTaint.isActive(this)) {
+            return false;
+        }
+        return isString(left) && isTaintedNumber(frame, getRightNode(), right) || isString(right) && isTaintedNumber(frame, getLeftNode(), left);
+    }
+
+    private static boolean isTaintedNumber(VirtualFrame frame, SLExpressionNode operandNode, Object operand) {
+        return operand instanceof Long && SLShadowTaint.taintOf(frame, operandNode) != SLTaintRanges.UNTAINTED;
+    }
+
     /**
      * Specialization for concatentation of {@link Object}s, where at least one of them is taint tracked
      * (i.e. an  instance of {@link SLString}). The taint of the tainted {@link SLString}s is then propagated
@@ -113,12 +212,7 @@ public abstract class SLAddNode extends SLBinaryNode {
     protected SLString addTainted(Object left, Object right,
                         @CachedLibrary(limit = "3") SLStringLibrary leftLib,
                         @CachedLibrary(limit = "3") SLStringLibrary rightLib) {
-        
-        String stringLeft = leftLib.asString(left);
-        String stringRight = rightLib.asString(right);
-        Object[] taintLeft = leftLib.getTaint(left);
-        Object[] taintRight = rightLib.getTaint(right);
-        return SLString.concatenate(stringLeft, stringRight, taintLeft, taintRight);
+        return SLString.concatenate(leftLib.asSLString(left), rightLib.asSLString(right));
     }
 
     /**
@@ -138,6 +232,11 @@ public abstract class SLAddNode extends SLBinaryNode {
         return leftLib.asString(left) + rightLib.asString(right);
     }
 
+    @TruffleBoundary
+    private static String concat(String left, String right) {
+        return left + right;
+    }
+
     @Fallback
     protected Object typeError(Object left, Object right) {
         throw SLException.typeError(this, left, right);
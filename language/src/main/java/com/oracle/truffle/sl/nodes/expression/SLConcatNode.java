@@ -0,0 +1,244 @@
+package com.oracle.truffle.sl.nodes.expression;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.InstrumentableNode;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.Tag;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
+import com.oracle.truffle.sl.nodes.util.SLUnboxNodeGen;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLStringLibrary;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
+import java.util.Set;
+
+/**
+ * SL node for a chain of "+" operations with at least 3 operands, e.g. {@code a + "b" + c + d}.
+ * Created by the parser instead of nested {@link SLAddNode}s for chains known to produce a string,
+ * so that string concatenations produce a single result instead of one intermediate string per
+ * operator.
+ * <p>
+ * As "+" is left associative, the operands are folded from left to right using the semantics of
+ * {@link SLAddNode} until the intermediate result is a string, e.g. for {@code 1 + 2 + "a"}.
+ * All remaining operands are then concatenated at once, {@see SLString#concatenate(Object[])}.
+ * <p>
+ * The node keeps the source sections of the "+" operations it replaces. When an instrument asks
+ * for expressions, it is materialized back into the nested {@link SLAddNode}s, so the instrument
+ * sees the same events as for the unmerged chain.
+ */
+@NodeInfo(shortName = "+")
+public final class SLConcatNode extends SLExpressionNode {
+
+  @Children private final SLExpressionNode[] operandNodes;
+
+  @Children private final ToPartNode[] partNodes;
+
+  @Child private SLAddNode addNode;
+
+  /**
+   * The source end index of the "+" before each operand from the third on, i.e. of the nested
+   * operations. All of them start where this node starts.
+   */
+  private final int[] operatorEnds;
+
+  /**
+   * The auxiliary frame slot holding the taint of the last numeric result, {@see SLShadowTaint}.
+   */
+  @CompilationFinal private int taintSlot = -1;
+
+  public SLConcatNode(SLExpressionNode[] operandNodes, int[] operatorEnds) {
+    assert operatorEnds.length == operandNodes.length - 2;
+    this.operandNodes = operandNodes;
+    this.operatorEnds = operatorEnds;
+    this.partNodes = new ToPartNode[operandNodes.length];
+    for (int i = 0; i < partNodes.length; i++) {
+      partNodes[i] = SLConcatNodeFactory.ToPartNodeGen.create();
+    }
+  }
+
+  /**
+   * @return the operand nodes, used by the parser to append further operands
+   */
+  public SLExpressionNode[] getOperandNodes() {
+    return operandNodes;
+  }
+
+  /**
+   * @return the source end indices of the nested "+" operations, {@see #operatorEnds}
+   */
+  public int[] getOperatorEnds() {
+    return operatorEnds;
+  }
+
+  /**
+   * Replaces this node by the nested {@link SLAddNode}s of the chain once expressions are
+   * instrumented, with the source sections and tags the parser would have given them.
+   */
+  @Override
+  public InstrumentableNode materializeInstrumentableNodes(Set<Class<? extends Tag>> materializedTags) {
+    if (!materializedTags.contains(StandardTags.ExpressionTag.class) || !hasTag(StandardTags.ExpressionTag.class)) {
+      return this;
+    }
+    SourceSection section = getSourceSection();
+    if (section == null) {
+      return this;
+    }
+    Source source = section.getSource();
+    int start = getSourceCharIndex();
+    SLExpressionNode left = operandNodes[0];
+    for (int i = 1; i < operandNodes.length; i++) {
+      SLAddNode add = SLAddNodeGen.create(left, operandNodes[i]);
+      int end = i < operandNodes.length - 1 ? operatorEnds[i - 1] : getSourceEndIndex();
+      add.setMaterializedSourceSection(source.createSection(start, end - start));
+      add.addExpressionTag();
+      left = i < operandNodes.length - 1 ? SLUnboxNodeGen.create(add) : add;
+    }
+    if (hasTag(StandardTags.StatementTag.class)) {
+      left.addStatementTag();
+    }
+    return left;
+  }
+
+  @Override
+  @ExplodeLoop
+  public Object executeGeneric(VirtualFrame frame) {
+    boolean shadowTaint = SLShadowTaint.isActive(this);
+    Object[] parts = null;
+    Object result = operandNodes[0].executeGeneric(frame);
+    int resultTaint = shadowTaint ? SLShadowTaint.taintOf(frame, operandNodes[0]) : SLTaintRanges.UNTAINTED;
+    for (int i = 1; i < operandNodes.length; i++) {
+      Object operand = operandNodes[i].executeGeneric(frame);
+      if (parts != null) {
+        parts[i] = toPart(frame, i, operand);
+      } else if (isString(result) || isString(operand)) {
+        /* Adding a string to any value concatenates their string representations, as in SLAddNode. */
+        parts = new Object[operandNodes.length];
+        parts[i - 1] = partNodes[i - 1].execute(boxResult(result, resultTaint));
+        parts[i] = toPart(frame, i, operand);
+      } else {
+        result = getAddNode().executeEvaluated(frame, result, operand);
+        if (shadowTaint) {
+          resultTaint = SLShadowTaint.join(this, resultTaint, SLShadowTaint.taintOf(frame, operandNodes[i]));
+        }
+      }
+    }
+    if (parts == null) {
+      if (SLShadowTaint.isActive(this)) {
+        propagateTaint(frame);
+      }
+      return result;
+    }
+    return SLString.concatenate(compact(parts));
+  }
+
+  /**
+   * Converts the operand at {@code index} to a part. A number tainted in the shadow slots of this
+   * frame is boxed first, so that its characters keep the taint.
+   */
+  private Object toPart(VirtualFrame frame, int index, Object operand) {
+    return partNodes[index].execute(SLShadowTaint.box(frame, this, operandNodes[index], operand));
+  }
+
+  /**
+   * Boxes the numeric result folded so far if it is tainted, {@see #toPart}.
+   */
+  private static Object boxResult(Object result, int resultTaint) {
+    if (resultTaint != SLTaintRanges.UNTAINTED && result instanceof Long) {
+      return new SLTaintedNumber((long) result, resultTaint);
+    }
+    return result;
+  }
+
+  /**
+   * The taint of a sum of numbers is the union of the taint of all operands.
+   */
+  @ExplodeLoop
+  private void propagateTaint(VirtualFrame frame) {
+    int taint = SLTaintRanges.UNTAINTED;
+    for (int i = 0; i < operandNodes.length; i++) {
+      taint = SLShadowTaint.join(this, taint, SLShadowTaint.taintOf(frame, operandNodes[i]));
+    }
+    if (taintSlot < 0) {
+      if (taint == SLTaintRanges.UNTAINTED) {
+        return;
+      }
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      taintSlot = SLShadowTaint.allocateResult(frame, this);
+    }
+    SLShadowTaint.setResult(frame, taintSlot, taint);
+  }
+
+  @Override
+  public int getResultTaint(VirtualFrame frame) {
+    return taintSlot < 0 ? SLTaintRanges.UNTAINTED : SLShadowTaint.getResult(frame, taintSlot);
+  }
+
+  private static boolean isString(Object value) {
+    return value instanceof String || value instanceof SLString;
+  }
+
+  /**
+   * Removes the leading slots of operands folded before the intermediate result became a string.
+   */
+  private static Object[] compact(Object[] parts) {
+    int first = 0;
+    while (parts[first] == null) {
+      first++;
+    }
+    if (first == 0) {
+      return parts;
+    }
+    Object[] compacted = new Object[parts.length - first];
+    System.arraycopy(parts, first, compacted, 0, compacted.length);
+    return compacted;
+  }
+
+  private SLAddNode getAddNode() {
+    if (addNode == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      addNode = insert(SLAddNodeGen.create(null, null));
+    }
+    return addNode;
+  }
+
+  /**
+   * Converts an operand to a part of the concatenation, i.e. to a {@link String} or a {@link SLString}.
+   */
+  abstract static class ToPartNode extends Node {
+
+    abstract Object execute(Object value);
+
+    @Specialization
+    static String doString(String value) {
+      return value;
+    }
+
+    @Specialization
+    static SLString doSLString(SLString value) {
+      return value;
+    }
+
+    /**
+     * Tainted values other than strings, i.e. boxed tainted numbers.
+     */
+    @Specialization(guards = "lib.isTainted(value)", limit = "3")
+    static SLString doTainted(Object value, @CachedLibrary("value") SLStringLibrary lib) {
+      return lib.asSLString(value);
+    }
+
+    @Specialization(limit = "3")
+    static String doOther(Object value, @CachedLibrary("value") SLStringLibrary lib) {
+      return lib.asString(value);
+    }
+  }
+}
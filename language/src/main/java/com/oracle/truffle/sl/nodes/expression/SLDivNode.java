@@ -43,6 +43,7 @@ package com.oracle.truffle.sl.nodes.expression;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.nodes.SLBinaryNode;
@@ -57,7 +58,7 @@ import com.oracle.truffle.sl.runtime.SLBigNumber;
 public abstract class SLDivNode extends SLBinaryNode {
 
     @Specialization(rewriteOn = ArithmeticException.class)
-    protected long div(long left, long right) throws ArithmeticException {
+    protected long div(VirtualFrame frame, long left, long right) throws ArithmeticException {
         long result = left / right;
         /*
          * The division overflows if left is Long.MIN_VALUE and right is -1.
@@ -65,12 +66,18 @@ public abstract class SLDivNode extends SLBinaryNode {
         if ((left & right & result) < 0) {
             throw new ArithmeticException("long overflow");
         }
+        propagateTaint(frame);
         return result;
     }
 
     @Specialization
+    protected SLBigNumber div(VirtualFrame frame, SLBigNumber left, SLBigNumber right) {
+        propagateTaint(frame);
+        return divBigNumber(left, right);
+    }
+
     @TruffleBoundary
-    protected SLBigNumber div(SLBigNumber left, SLBigNumber right) {
+    private static SLBigNumber divBigNumber(SLBigNumber left, SLBigNumber right) {
         return new SLBigNumber(left.getValue().divide(right.getValue()));
     }
 
@@ -52,6 +52,7 @@ import com.oracle.truffle.sl.nodes.SLBinaryNode;
 import com.oracle.truffle.sl.runtime.SLBigNumber;
 import com.oracle.truffle.sl.runtime.SLFunction;
 import com.oracle.truffle.sl.runtime.SLNull;
+import com.oracle.truffle.sl.runtime.SLString;
 
 /**
  * The {@code ==} operator of SL is defined on all types. Therefore, we need a
@@ -85,6 +86,25 @@ public abstract class SLEqualNode extends SLBinaryNode {
         return left.equals(right);
     }
 
+    /**
+     * Comparisons involving a taint tracked {@link SLString}. The taint is disregarded, only the
+     * characters are compared, without going through interop like {@link #doGeneric}.
+     */
+    @Specialization
+    protected boolean doSLString(SLString left, String right) {
+        return left.contentEquals(right);
+    }
+
+    @Specialization
+    protected boolean doSLString(String left, SLString right) {
+        return right.contentEquals(left);
+    }
+
+    @Specialization
+    protected boolean doSLString(SLString left, SLString right) {
+        return left.contentEquals(right);
+    }
+
     @Specialization
     protected boolean doNull(SLNull left, SLNull right) {
         /* There is only the singleton instance of SLNull, so we do not need equals(). */
@@ -76,6 +76,10 @@ public final class SLFunctionLiteralNode extends SLExpressionNode {
         this.functionName = functionName;
     }
 
+    public String getFunctionName() {
+        return functionName;
+    }
+
     @Override
     public SLFunction executeGeneric(VirtualFrame frame) {
         SLLanguage l = SLLanguage.get(this);
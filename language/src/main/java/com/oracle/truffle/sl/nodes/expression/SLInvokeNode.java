@@ -41,6 +41,8 @@
 package com.oracle.truffle.sl.nodes.expression;
 
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.instrumentation.Tag;
@@ -51,7 +53,18 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
+import com.oracle.truffle.sl.nodes.taint.SLTaintPolicyDispatchNode;
+import com.oracle.truffle.sl.nodes.taint.SLTaintPolicyDispatchNodeGen;
+import com.oracle.truffle.sl.nodes.taint.SLTaintPolicyNode;
+import com.oracle.truffle.sl.nodes.taint.SLTaintedCallNode;
+import com.oracle.truffle.sl.nodes.taint.SLTaintedCallNodeGen;
+import com.oracle.truffle.sl.runtime.SLArgumentTaint;
+import com.oracle.truffle.sl.runtime.SLContext;
 import com.oracle.truffle.sl.runtime.SLFunction;
+import com.oracle.truffle.sl.runtime.SLTaintPolicy;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 import com.oracle.truffle.sl.runtime.SLUndefinedNameException;
 
 /**
@@ -69,12 +82,53 @@ public final class SLInvokeNode extends SLExpressionNode {
     @Children private final SLExpressionNode[] argumentNodes;
     @Child private InteropLibrary library;
 
+    /**
+     * The auxiliary frame slot holding the taint of the last result, {@see SLShadowTaint}.
+     */
+    @CompilationFinal private int taintSlot = -1;
+
+    /**
+     * The taint signature of all arguments this call site ever passed, {@see SLArgumentTaint}. Once it
+     * is not zero, SL functions are called via {@link #taintedCall} whenever the current arguments are
+     * tainted.
+     */
+    @CompilationFinal private int taintedArguments;
+
+    @Child private SLTaintedCallNode taintedCall;
+
+    /**
+     * Applies the taint policy entry of the function called, {@code null} if it has none or if the
+     * function is only known at run time.
+     */
+    @Child private SLTaintPolicyNode taintPolicy;
+
+    /** Resolves the policy entry of a function only known at run time, {@code null} otherwise. */
+    @Child private SLTaintPolicyDispatchNode taintPolicyDispatch;
+
     public SLInvokeNode(SLExpressionNode functionNode, SLExpressionNode[] argumentNodes) {
         this.functionNode = functionNode;
         this.argumentNodes = argumentNodes;
         this.library = InteropLibrary.getFactory().createDispatched(3);
     }
 
+    /**
+     * Applies the taint policy to this call site, must be called before it is executed. Call sites
+     * of a {@link SLFunctionLiteralNode function literal} get the policy node of the function, if
+     * it has an entry. Other call sites resolve the policy node whenever they are executed.
+     *
+     * @param policy the taint policy of the language
+     */
+    public void setTaintPolicy(SLTaintPolicy policy) {
+        if (policy.isEmpty()) {
+            return;
+        }
+        if (functionNode instanceof SLFunctionLiteralNode) {
+            taintPolicy = SLTaintPolicyNode.create(policy, ((SLFunctionLiteralNode) functionNode).getFunctionName());
+        } else {
+            taintPolicyDispatch = SLTaintPolicyDispatchNodeGen.create();
+        }
+    }
+
     @ExplodeLoop
     @Override
     public Object executeGeneric(VirtualFrame frame) {
@@ -92,13 +146,91 @@ public final class SLInvokeNode extends SLExpressionNode {
         for (int i = 0; i < argumentNodes.length; i++) {
             argumentValues[i] = argumentNodes[i].executeGeneric(frame);
         }
+        if (SLShadowTaint.isActive(this)) {
+            boxTaintedArguments(frame, argumentValues);
+        }
+        SLTaintPolicyNode policy = taintPolicyDispatch == null ? taintPolicy : taintPolicyDispatch.execute(function);
+        if (policy != null) {
+            policy.onEnter(argumentValues);
+        }
+        int signature = argumentTaint(argumentValues);
 
-        try {
-            return library.execute(function, argumentValues);
-        } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e) {
-            /* Execute was not successful. */
-            throw SLUndefinedNameException.undefinedFunction(this, function);
+        Object result;
+        if (signature != 0 && function instanceof SLFunction) {
+            result = taintedCall.execute((SLFunction) function, argumentValues, signature);
+        } else {
+            try {
+                result = library.execute(function, argumentValues);
+            } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e) {
+                /* Execute was not successful. */
+                throw SLUndefinedNameException.undefinedFunction(this, function);
+            }
+        }
+        if (policy != null) {
+            result = policy.onReturn(result);
         }
+        if (result instanceof SLTaintedNumber && SLShadowTaint.activate(this, frame)) {
+            SLTaintedNumber number = (SLTaintedNumber) result;
+            setResultTaint(frame, number.getLabelSetId());
+            return number.getValue();
+        } else if (taintSlot >= 0) {
+            SLShadowTaint.setResult(frame, taintSlot, SLTaintRanges.UNTAINTED);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the taint signature of the arguments and updates the profile of this call site. The
+     * arguments are not checked at all while the context has not created any tainted value. Calls
+     * with untainted arguments always take the regular path, calls with tainted arguments call the
+     * {@link com.oracle.truffle.sl.nodes.SLRootNode#getTaintedSplit(int) split} of SL functions for
+     * their signature. The split is selected by this node, the arguments are passed as they are.
+     *
+     * @return the taint signature, zero if no argument is tainted
+     */
+    @ExplodeLoop
+    private int argumentTaint(Object[] argumentValues) {
+        if (SLContext.isUntainted(this)) {
+            return 0;
+        }
+        int signature = 0;
+        for (int i = 0; i < argumentNodes.length; i++) {
+            if (SLArgumentTaint.isTainted(argumentValues[i])) {
+                signature |= SLArgumentTaint.bit(i);
+            }
+        }
+        if ((signature & ~taintedArguments) != 0) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            if (taintedCall == null) {
+                taintedCall = insert(SLTaintedCallNodeGen.create());
+            }
+            taintedArguments |= signature;
+        }
+        return signature;
+    }
+
+    /**
+     * Tainted numbers are passed as {@link SLTaintedNumber}, as the taint in the shadow slots of
+     * this frame is not accessible to the callee.
+     */
+    @ExplodeLoop
+    private void boxTaintedArguments(VirtualFrame frame, Object[] argumentValues) {
+        for (int i = 0; i < argumentNodes.length; i++) {
+            argumentValues[i] = SLShadowTaint.box(frame, this, argumentNodes[i], argumentValues[i]);
+        }
+    }
+
+    private void setResultTaint(VirtualFrame frame, int taint) {
+        if (taintSlot < 0) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            taintSlot = SLShadowTaint.allocateResult(frame, this);
+        }
+        SLShadowTaint.setResult(frame, taintSlot, taint);
+    }
+
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return taintSlot < 0 ? SLTaintRanges.UNTAINTED : SLShadowTaint.getResult(frame, taintSlot);
     }
 
     @Override
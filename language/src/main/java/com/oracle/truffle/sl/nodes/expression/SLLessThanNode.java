@@ -47,6 +47,7 @@ import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.nodes.SLBinaryNode;
 import com.oracle.truffle.sl.runtime.SLBigNumber;
+import com.oracle.truffle.sl.runtime.SLString;
 
 /**
  * This class is similar to the extensively documented {@link SLAddNode}. The only difference: the
@@ -66,6 +67,30 @@ public abstract class SLLessThanNode extends SLBinaryNode {
         return left.compareTo(right) < 0;
     }
 
+    /**
+     * Lexicographic ordering of strings. The taint of {@link SLString}s is disregarded.
+     */
+    @Specialization
+    @TruffleBoundary
+    protected boolean lessThan(String left, String right) {
+        return left.compareTo(right) < 0;
+    }
+
+    @Specialization
+    protected boolean lessThan(SLString left, String right) {
+        return left.compareTo(right) < 0;
+    }
+
+    @Specialization
+    protected boolean lessThan(String left, SLString right) {
+        return SLString.compare(left, right) < 0;
+    }
+
+    @Specialization
+    protected boolean lessThan(SLString left, SLString right) {
+        return left.compareTo(right) < 0;
+    }
+
     @Fallback
     protected Object typeError(Object left, Object right) {
         throw SLException.typeError(this, left, right);
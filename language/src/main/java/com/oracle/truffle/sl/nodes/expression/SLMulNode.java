@@ -43,6 +43,7 @@ package com.oracle.truffle.sl.nodes.expression;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.nodes.SLBinaryNode;
@@ -55,13 +56,20 @@ import com.oracle.truffle.sl.runtime.SLBigNumber;
 public abstract class SLMulNode extends SLBinaryNode {
 
     @Specialization(rewriteOn = ArithmeticException.class)
-    protected long mul(long left, long right) {
-        return Math.multiplyExact(left, right);
+    protected long mul(VirtualFrame frame, long left, long right) {
+        long result = Math.multiplyExact(left, right);
+        propagateTaint(frame);
+        return result;
     }
 
     @Specialization
+    protected SLBigNumber mul(VirtualFrame frame, SLBigNumber left, SLBigNumber right) {
+        propagateTaint(frame);
+        return mulBigNumber(left, right);
+    }
+
     @TruffleBoundary
-    protected SLBigNumber mul(SLBigNumber left, SLBigNumber right) {
+    private static SLBigNumber mulBigNumber(SLBigNumber left, SLBigNumber right) {
         return new SLBigNumber(left.getValue().multiply(right.getValue()));
     }
 
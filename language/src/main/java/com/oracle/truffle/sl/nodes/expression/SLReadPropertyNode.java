@@ -40,9 +40,12 @@
  */
 package com.oracle.truffle.sl.nodes.expression;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
@@ -50,7 +53,11 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.util.SLToMemberNode;
+import com.oracle.truffle.sl.runtime.SLObject;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 import com.oracle.truffle.sl.runtime.SLUndefinedNameException;
 
 /**
@@ -60,6 +67,8 @@ import com.oracle.truffle.sl.runtime.SLUndefinedNameException;
  * <li>evaluated the property name</li>
  * <li>reads the named property</li>
  * </ol>
+ * Tainted numbers are stored boxed, {@see SLWritePropertyNode}. They are unboxed again when read,
+ * their taint goes to the shadow slot of this node, {@see SLShadowTaint}.
  */
 @NodeInfo(shortName = ".")
 @NodeChild("receiverNode")
@@ -68,12 +77,25 @@ public abstract class SLReadPropertyNode extends SLExpressionNode {
 
     static final int LIBRARY_LIMIT = 3;
 
+    /**
+     * The auxiliary frame slot holding the taint of the last result, {@see SLShadowTaint}.
+     */
+    @CompilationFinal private int taintSlot = -1;
+
+    /**
+     * Reads the dense integer keys of an {@link SLObject} without converting them to member names.
+     */
+    @Specialization(guards = "receiver.isElement(index)")
+    protected Object readElement(VirtualFrame frame, SLObject receiver, long index) {
+        return unboxTaint(frame, receiver.readElement(index));
+    }
+
     @Specialization(guards = "arrays.hasArrayElements(receiver)", limit = "LIBRARY_LIMIT")
-    protected Object readArray(Object receiver, Object index,
+    protected Object readArray(VirtualFrame frame, Object receiver, Object index,
                     @CachedLibrary("receiver") InteropLibrary arrays,
                     @CachedLibrary("index") InteropLibrary numbers) {
         try {
-            return arrays.readArrayElement(receiver, numbers.asLong(index));
+            return unboxTaint(frame, arrays.readArrayElement(receiver, numbers.asLong(index)));
         } catch (UnsupportedMessageException | InvalidArrayIndexException e) {
             // read was not successful. In SL we only have basic support for errors.
             throw SLUndefinedNameException.undefinedProperty(this, index);
@@ -81,15 +103,35 @@ public abstract class SLReadPropertyNode extends SLExpressionNode {
     }
 
     @Specialization(guards = "objects.hasMembers(receiver)", limit = "LIBRARY_LIMIT")
-    protected Object readObject(Object receiver, Object name,
+    protected Object readObject(VirtualFrame frame, Object receiver, Object name,
                     @CachedLibrary("receiver") InteropLibrary objects,
                     @Cached SLToMemberNode asMember) {
         try {
-            return objects.readMember(receiver, asMember.execute(name));
+            return unboxTaint(frame, objects.readMember(receiver, asMember.execute(name)));
         } catch (UnsupportedMessageException | UnknownIdentifierException e) {
             // read was not successful. In SL we only have basic support for errors.
             throw SLUndefinedNameException.undefinedProperty(this, name);
         }
     }
 
+    private Object unboxTaint(VirtualFrame frame, Object value) {
+        if (value instanceof SLTaintedNumber && SLShadowTaint.activate(this, frame)) {
+            SLTaintedNumber number = (SLTaintedNumber) value;
+            if (taintSlot < 0) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                taintSlot = SLShadowTaint.allocateResult(frame, this);
+            }
+            SLShadowTaint.setResult(frame, taintSlot, number.getLabelSetId());
+            return number.getValue();
+        } else if (taintSlot >= 0) {
+            SLShadowTaint.setResult(frame, taintSlot, SLTaintRanges.UNTAINTED);
+        }
+        return value;
+    }
+
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return taintSlot < 0 ? SLTaintRanges.UNTAINTED : SLShadowTaint.getResult(frame, taintSlot);
+    }
+
 }
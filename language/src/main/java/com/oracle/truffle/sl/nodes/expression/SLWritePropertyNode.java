@@ -43,6 +43,7 @@ package com.oracle.truffle.sl.nodes.expression;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
@@ -51,7 +52,9 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.util.SLToMemberNode;
+import com.oracle.truffle.sl.runtime.SLObject;
 import com.oracle.truffle.sl.runtime.SLUndefinedNameException;
 
 /**
@@ -63,6 +66,8 @@ import com.oracle.truffle.sl.runtime.SLUndefinedNameException;
  * <li>writes the named property</li>
  * <li>returns the written value</li>
  * </ol>
+ * A tainted number is stored as {@link com.oracle.truffle.sl.runtime.SLTaintedNumber}, as the taint
+ * in the shadow slots of this frame does not travel with the object, {@see SLShadowTaint#box}.
  */
 @NodeInfo(shortName = ".=")
 @NodeChild("receiverNode")
@@ -72,12 +77,31 @@ public abstract class SLWritePropertyNode extends SLExpressionNode {
 
     static final int LIBRARY_LIMIT = 3;
 
+    protected abstract SLExpressionNode getValueNode();
+
+    /**
+     * The written value is returned unboxed, with the taint of the value operand.
+     */
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return SLShadowTaint.taintOf(frame, getValueNode());
+    }
+
+    /**
+     * Writes the dense integer keys of an {@link SLObject} without converting them to member names.
+     */
+    @Specialization(guards = "receiver.isElementWritable(index)")
+    protected Object writeElement(VirtualFrame frame, SLObject receiver, long index, Object value) {
+        receiver.writeElement(index, SLShadowTaint.box(frame, this, getValueNode(), value));
+        return value;
+    }
+
     @Specialization(guards = "arrays.hasArrayElements(receiver)", limit = "LIBRARY_LIMIT")
-    protected Object writeArray(Object receiver, Object index, Object value,
+    protected Object writeArray(VirtualFrame frame, Object receiver, Object index, Object value,
                     @CachedLibrary("receiver") InteropLibrary arrays,
                     @CachedLibrary("index") InteropLibrary numbers) {
         try {
-            arrays.writeArrayElement(receiver, numbers.asLong(index), value);
+            arrays.writeArrayElement(receiver, numbers.asLong(index), SLShadowTaint.box(frame, this, getValueNode(), value));
         } catch (UnsupportedMessageException | UnsupportedTypeException | InvalidArrayIndexException e) {
             // read was not successful. In SL we only have basic support for errors.
             throw SLUndefinedNameException.undefinedProperty(this, index);
@@ -86,11 +110,11 @@ public abstract class SLWritePropertyNode extends SLExpressionNode {
     }
 
     @Specialization(limit = "LIBRARY_LIMIT")
-    protected Object writeObject(Object receiver, Object name, Object value,
+    protected Object writeObject(VirtualFrame frame, Object receiver, Object name, Object value,
                     @CachedLibrary("receiver") InteropLibrary objectLibrary,
                     @Cached SLToMemberNode asMember) {
         try {
-            objectLibrary.writeMember(receiver, asMember.execute(name), value);
+            objectLibrary.writeMember(receiver, asMember.execute(name), SLShadowTaint.box(frame, this, getValueNode(), value));
         } catch (UnsupportedMessageException | UnknownIdentifierException | UnsupportedTypeException e) {
             // write was not successful. In SL we only have basic support for errors.
             throw SLUndefinedNameException.undefinedProperty(this, name);
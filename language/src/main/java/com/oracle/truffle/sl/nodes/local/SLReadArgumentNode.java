@@ -40,11 +40,18 @@
  */
 package com.oracle.truffle.sl.nodes.local;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLRootNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.parser.SLNodeFactory;
 import com.oracle.truffle.sl.runtime.SLNull;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
 
 /**
  * Reads a function argument. Arguments are passed in as an object array.
@@ -64,6 +71,22 @@ public class SLReadArgumentNode extends SLExpressionNode {
      */
     private final BranchProfile outOfBoundsTaken = BranchProfile.create();
 
+    /**
+     * The auxiliary frame slot holding the taint of the argument, {@see SLShadowTaint}.
+     */
+    @CompilationFinal private int taintSlot = -1;
+
+    /**
+     * Whether the function may receive a tainted argument at {@link #index}, resolved on the first
+     * read. Splits only receive tainted values at the positions of their taint signature, {@see
+     * SLRootNode#isArgumentTainted}, so the other arguments skip the taint check.
+     */
+    @CompilationFinal private byte argumentTaint = UNRESOLVED;
+
+    private static final byte UNRESOLVED = 0;
+    private static final byte TAINTED = 1;
+    private static final byte UNTAINTED = 2;
+
     public SLReadArgumentNode(int index) {
         this.index = index;
     }
@@ -72,7 +95,20 @@ public class SLReadArgumentNode extends SLExpressionNode {
     public Object executeGeneric(VirtualFrame frame) {
         Object[] args = frame.getArguments();
         if (index < args.length) {
-            return args[index];
+            Object value = args[index];
+            if (isArgumentTainted() && value instanceof SLTaintedNumber && SLShadowTaint.activate(this, frame)) {
+                /* Keep the argument unboxed in SL functions, its taint goes to the shadow slot. */
+                SLTaintedNumber number = (SLTaintedNumber) value;
+                if (taintSlot < 0) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    taintSlot = SLShadowTaint.allocateResult(frame, this);
+                }
+                SLShadowTaint.setResult(frame, taintSlot, number.getLabelSetId());
+                return number.getValue();
+            } else if (taintSlot >= 0) {
+                SLShadowTaint.setResult(frame, taintSlot, SLTaintRanges.UNTAINTED);
+            }
+            return value;
         } else {
             /* In the interpreter, record profiling information that the branch was used. */
             outOfBoundsTaken.enter();
@@ -80,4 +116,18 @@ public class SLReadArgumentNode extends SLExpressionNode {
             return SLNull.SINGLETON;
         }
     }
+
+    private boolean isArgumentTainted() {
+        if (argumentTaint == UNRESOLVED) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            RootNode root = getRootNode();
+            argumentTaint = !(root instanceof SLRootNode) || ((SLRootNode) root).isArgumentTainted(index) ? TAINTED : UNTAINTED;
+        }
+        return argumentTaint == TAINTED;
+    }
+
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return taintSlot < 0 ? SLTaintRanges.UNTAINTED : SLShadowTaint.getResult(frame, taintSlot);
+    }
 }
@@ -47,6 +47,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags.ReadVariableTag;
 import com.oracle.truffle.api.instrumentation.Tag;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.interop.NodeObjectDescriptor;
 
 /**
@@ -102,6 +103,11 @@ public abstract class SLReadLocalVariableNode extends SLExpressionNode {
         return frame.getObject(getSlot());
     }
 
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return SLShadowTaint.getLocal(this, frame, getSlot());
+    }
+
     @Override
     public boolean hasTag(Class<? extends Tag> tag) {
         return tag == ReadVariableTag.class || super.hasTag(tag);
@@ -51,6 +51,7 @@ import com.oracle.truffle.api.instrumentation.Tag;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.interop.NodeObjectDescriptor;
 
 /**
@@ -75,6 +76,8 @@ public abstract class SLWriteLocalVariableNode extends SLExpressionNode {
      */
     protected abstract SLExpressionNode getNameNode();
 
+    protected abstract SLExpressionNode getValueNode();
+
     public abstract boolean isDeclaration();
 
     public final String getSlotName() {
@@ -92,6 +95,7 @@ public abstract class SLWriteLocalVariableNode extends SLExpressionNode {
         frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Long);
 
         frame.setLong(getSlot(), value);
+        writeShadowTaint(frame);
         return value;
     }
 
@@ -101,6 +105,7 @@ public abstract class SLWriteLocalVariableNode extends SLExpressionNode {
         frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Boolean);
 
         frame.setBoolean(getSlot(), value);
+        writeShadowTaint(frame);
         return value;
     }
 
@@ -126,9 +131,26 @@ public abstract class SLWriteLocalVariableNode extends SLExpressionNode {
         frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Object);
 
         frame.setObject(getSlot(), value);
+        writeShadowTaint(frame);
         return value;
     }
 
+    /**
+     * Copies the taint of the written value to the shadow slot of the local variable, once the
+     * function has seen tainted primitives. The slot kind is not affected, so tainted numbers stay
+     * in {@link FrameSlotKind#Long} slots.
+     */
+    private void writeShadowTaint(VirtualFrame frame) {
+        if (SLShadowTaint.isActive(this)) {
+            SLShadowTaint.setLocal(this, frame, getSlot(), SLShadowTaint.taintOf(frame, getValueNode()));
+        }
+    }
+
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return SLShadowTaint.getLocal(this, frame, getSlot());
+    }
+
     public abstract void executeWrite(VirtualFrame frame, Object value);
 
     /**
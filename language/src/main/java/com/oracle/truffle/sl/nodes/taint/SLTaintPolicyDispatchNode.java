@@ -0,0 +1,75 @@
+package com.oracle.truffle.sl.nodes.taint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLFunction;
+
+/**
+ * Resolves the {@link SLTaintPolicyNode} of the function called by a call site whose callee is
+ * computed, e.g. read from a variable, so it is only known when the call is executed. Call sites of a
+ * function literal get their policy node when they are parsed instead, {@see
+ * com.oracle.truffle.sl.parser.SLNodeFactory#createCall}.
+ * <p>
+ * Caches the policy node per function name. The names of the functions of one context are
+ * distinct, so they are compared by identity.
+ */
+public abstract class SLTaintPolicyDispatchNode extends Node {
+
+  static final int INLINE_CACHE_SIZE = SLFunction.INLINE_CACHE_SIZE;
+
+  /**
+   * @param function the value called
+   * @return the node applying the policy entry of {@code function}, {@code null} if it has none
+   */
+  public abstract SLTaintPolicyNode execute(Object function);
+
+  /** The policy nodes of the generic case by function name, {@code null} until it is reached. */
+  private Map<String, SLTaintPolicyNode> genericPolicyNodes;
+
+  @Specialization(limit = "INLINE_CACHE_SIZE", guards = "function.getName() == cachedName")
+  @SuppressWarnings("unused")
+  protected static SLTaintPolicyNode doCached(SLFunction function,
+                  @Cached("function.getName()") String cachedName,
+                  @Cached("createPolicyNode(cachedName)") SLTaintPolicyNode policyNode) {
+    return policyNode;
+  }
+
+  @Specialization(replaces = "doCached")
+  protected SLTaintPolicyNode doGeneric(SLFunction function) {
+    return lookup(function.getName());
+  }
+
+  @Fallback
+  protected static SLTaintPolicyNode doForeign(@SuppressWarnings("unused") Object function) {
+    return null;
+  }
+
+  protected SLTaintPolicyNode createPolicyNode(String function) {
+    return SLTaintPolicyNode.create(SLLanguage.get(this).getTaintPolicy(), function);
+  }
+
+  /**
+   * Looks up the policy node of a call site calling too many different functions to cache them in
+   * compiled code. The nodes are created once per function name and adopted by this node, so that
+   * they can look up their language and context.
+   */
+  @TruffleBoundary
+  private synchronized SLTaintPolicyNode lookup(String function) {
+    if (genericPolicyNodes == null) {
+      genericPolicyNodes = new HashMap<>();
+    }
+    SLTaintPolicyNode policyNode = genericPolicyNodes.get(function);
+    if (policyNode == null && !genericPolicyNodes.containsKey(function)) {
+      policyNode = createPolicyNode(function);
+      genericPolicyNodes.put(function, policyNode == null ? null : insert(policyNode));
+    }
+    return policyNode;
+  }
+}
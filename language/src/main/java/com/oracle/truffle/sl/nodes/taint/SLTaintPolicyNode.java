@@ -0,0 +1,49 @@
+package com.oracle.truffle.sl.nodes.taint;
+
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.sl.runtime.SLTaintPolicy;
+
+/**
+ * Applies the {@link SLTaintPolicy} entry of a function at a call site, owned by the
+ * {@link com.oracle.truffle.sl.nodes.expression.SLInvokeNode} calling it. Call sites of functions
+ * without an entry have no policy node, so they do not pay for the policy at all.
+ */
+public abstract class SLTaintPolicyNode extends Node {
+
+  /**
+   * Called before the function is called.
+   * @param arguments the arguments of the call, may be modified
+   */
+  public void onEnter(@SuppressWarnings("unused") Object[] arguments) {
+  }
+
+  /**
+   * Called with the result of the function.
+   * @return the result to return to the caller
+   */
+  public Object onReturn(Object result) {
+    return result;
+  }
+
+  /**
+   * @param policy the taint policy of the language
+   * @param function the name of a function
+   * @return the node applying the entry of {@code function}, {@code null} if it has none
+   */
+  public static SLTaintPolicyNode create(SLTaintPolicy policy, String function) {
+    SLTaintPolicy.Entry entry = policy.get(function);
+    if (entry == null) {
+      return null;
+    }
+    switch (entry.getKind()) {
+      case SOURCE:
+        return SLTaintSourceNodeGen.create(entry.getLabel());
+      case SINK:
+        return SLTaintSinkNode.create(function, entry.getMode(), entry.getSampleRate());
+      case SANITIZER:
+        return SLTaintSanitizerNodeGen.create();
+      default:
+        throw new IllegalStateException(entry.getKind().toString());
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.oracle.truffle.sl.nodes.taint;
+
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
+
+/**
+ * Removes the taint of the result of a sanitizer. Strings and numbers are returned untainted, other
+ * values are returned as they are.
+ */
+public abstract class SLTaintSanitizerNode extends SLTaintPolicyNode {
+
+  public abstract Object executeSanitize(Object value);
+
+  @Override
+  public Object onReturn(Object result) {
+    return executeSanitize(result);
+  }
+
+  @Specialization
+  protected String sanitize(SLString value) {
+    return value.toString();
+  }
+
+  @Specialization
+  protected long sanitize(SLTaintedNumber value) {
+    return value.getValue();
+  }
+
+  @Fallback
+  protected Object sanitize(Object value) {
+    return value;
+  }
+}
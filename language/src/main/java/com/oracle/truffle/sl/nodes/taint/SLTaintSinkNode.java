@@ -0,0 +1,179 @@
+package com.oracle.truffle.sl.nodes.taint;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLArgumentTaint;
+import com.oracle.truffle.sl.runtime.SLContext;
+import com.oracle.truffle.sl.runtime.SLNull;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintPolicy.SinkMode;
+import com.oracle.truffle.sl.runtime.SLTaintReporter;
+import com.oracle.truffle.sl.runtime.SLTaintViolation;
+
+/**
+ * Checks the arguments passed to a sink by one call site for taint, i.e. for tainted strings,
+ * tainted numbers and arrays with tainted elements. The arguments are not checked at all while the
+ * context has not created any tainted value, {@see SLContext#isUntainted}. Until the call site
+ * passes a tainted argument for the first time, compiled code only contains the checks themselves,
+ * the handling of violations is {@link #seenTainted profiled} away. The profile belongs to the call
+ * site, so call sites only ever passing untainted values keep the fast path when others do not.
+ * <p>
+ * There is one subclass per {@link SinkMode}, chosen when the policy is applied, so a sink only
+ * contains the code of its own mode.
+ */
+public abstract class SLTaintSinkNode extends SLTaintPolicyNode {
+
+  protected final String function;
+
+  /**
+   * Whether this call site ever passed a tainted argument to the sink.
+   */
+  @CompilationFinal private boolean seenTainted;
+
+  protected SLTaintSinkNode(String function) {
+    this.function = function;
+  }
+
+  /**
+   * @param function the name of the sink
+   * @param mode what to do on a violation
+   * @param sampleRate the N of a sink checking one in N calls on average, ignored by other modes
+   * @return the node checking the arguments of {@code function}
+   */
+  public static SLTaintSinkNode create(String function, SinkMode mode, int sampleRate) {
+    switch (mode) {
+      case LOG:
+        return new LogNode(function);
+      case BLOCK:
+        return new BlockNode(function);
+      case SANITIZE:
+        return new SanitizeNode(function);
+      case SAMPLE:
+        return new SampleNode(function, sampleRate);
+      default:
+        throw new IllegalArgumentException(mode.toString());
+    }
+  }
+
+  @Override
+  public void onEnter(Object[] arguments) {
+    if (SLContext.isUntainted(this) || !shouldCheck()) {
+      return;
+    }
+    for (int i = 0; i < arguments.length; i++) {
+      if (SLArgumentTaint.isTainted(arguments[i])) {
+        if (!seenTainted) {
+          CompilerDirectives.transferToInterpreterAndInvalidate();
+          seenTainted = true;
+        }
+        onViolation(arguments, i);
+      }
+    }
+  }
+
+  /**
+   * @return whether the arguments of this call are checked
+   */
+  protected boolean shouldCheck() {
+    return true;
+  }
+
+  /**
+   * Called for every tainted argument.
+   * @param arguments the arguments of the call, may be modified
+   * @param index the index of the tainted argument
+   */
+  protected abstract void onViolation(Object[] arguments, int index);
+
+  /**
+   * Publishes the violation to the reporter of the context, which exists as long as the policy has
+   * reporting sinks. The labels of the argument are determined here, as the reporter thread must not
+   * access values the program may still modify.
+   */
+  protected final void report(Object[] arguments, int index) {
+    SLTaintReporter reporter = SLContext.get(this).getTaintReporter();
+    reporter.publish(SLTaintViolation.of(function, index, arguments[index], SLLanguage.get(this).getTaintLabels()));
+  }
+
+  private static final class LogNode extends SLTaintSinkNode {
+
+    LogNode(String function) {
+      super(function);
+    }
+
+    @Override
+    protected void onViolation(Object[] arguments, int index) {
+      report(arguments, index);
+    }
+  }
+
+  private static final class BlockNode extends SLTaintSinkNode {
+
+    BlockNode(String function) {
+      super(function);
+    }
+
+    @Override
+    protected void onViolation(Object[] arguments, int index) {
+      throw violation(index);
+    }
+
+    @TruffleBoundary
+    private SLException violation(int index) {
+      return new SLException("Tainted value passed to sink " + function + " as argument " + (index + 1) + ".", this);
+    }
+  }
+
+  /**
+   * Replaces tainted arguments before the body of the sink reads them. Tainted strings keep their
+   * untainted characters, other tainted values are replaced by {@code NULL}.
+   */
+  private static final class SanitizeNode extends SLTaintSinkNode {
+
+    SanitizeNode(String function) {
+      super(function);
+    }
+
+    @Override
+    protected void onViolation(Object[] arguments, int index) {
+      Object value = arguments[index];
+      arguments[index] = value instanceof SLString ? ((SLString) value).stripTainted() : SLNull.SINGLETON;
+    }
+  }
+
+  /**
+   * Checks one in {@link #rate} calls on average, for sinks too hot to check every call. Each call
+   * is checked with a probability of 1 / {@link #rate}, drawn from the random generator of the
+   * calling thread. Calls are not counted, so threads and contexts sharing the call site neither
+   * contend on nor race for shared state, and the sink does not write to the node on every call.
+   */
+  private static final class SampleNode extends SLTaintSinkNode {
+
+    private final int rate;
+
+    SampleNode(String function, int rate) {
+      super(function);
+      this.rate = rate;
+    }
+
+    @Override
+    protected boolean shouldCheck() {
+      return rate == 1 || sample(rate);
+    }
+
+    @TruffleBoundary
+    private static boolean sample(int rate) {
+      return ThreadLocalRandom.current().nextInt(rate) == 0;
+    }
+
+    @Override
+    protected void onViolation(Object[] arguments, int index) {
+      report(arguments, index);
+    }
+  }
+}
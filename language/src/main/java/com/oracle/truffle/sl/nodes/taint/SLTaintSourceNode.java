@@ -0,0 +1,68 @@
+package com.oracle.truffle.sl.nodes.taint;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLContext;
+import com.oracle.truffle.sl.runtime.SLString;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintedNumber;
+
+/**
+ * Taints the result of a source with the label of its policy entry. Strings are tainted as a whole,
+ * i.e. with a single run, numbers are passed to the caller as {@link SLTaintedNumber}. Other values
+ * are returned as they are.
+ */
+public abstract class SLTaintSourceNode extends SLTaintPolicyNode {
+
+  private final String label;
+
+  @CompilationFinal private int labelSetId = -1;
+
+  protected SLTaintSourceNode(String label) {
+    this.label = label;
+  }
+
+  public abstract Object executeTaint(Object value);
+
+  @Override
+  public Object onReturn(Object result) {
+    SLContext.get(this).notifyTainted();
+    return executeTaint(result);
+  }
+
+  @Specialization
+  protected SLString taint(String value) {
+    return new SLString(value, SLTaintRanges.of(value.length(), getLabelSetId()));
+  }
+
+  @Specialization
+  protected SLString taint(SLString value) {
+    return value.addTaint(getLabelSetId(), SLLanguage.get(this).getTaintLabels());
+  }
+
+  @Specialization
+  protected SLTaintedNumber taint(long value) {
+    return new SLTaintedNumber(value, getLabelSetId());
+  }
+
+  @Specialization
+  protected SLTaintedNumber taint(SLTaintedNumber value) {
+    return new SLTaintedNumber(value.getValue(), SLLanguage.get(this).getTaintLabels().join(value.getLabelSetId(), getLabelSetId()));
+  }
+
+  @Fallback
+  protected Object taint(Object value) {
+    return value;
+  }
+
+  private int getLabelSetId() {
+    if (labelSetId < 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      labelSetId = SLLanguage.get(this).getTaintLabels().internSet(label);
+    }
+    return labelSetId;
+  }
+}
@@ -0,0 +1,58 @@
+package com.oracle.truffle.sl.nodes.taint;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.sl.nodes.SLRootNode;
+import com.oracle.truffle.sl.runtime.SLFunction;
+
+/**
+ * Calls the {@link SLRootNode#getTaintedSplit(int) tainted split} of an SL function for the taint
+ * signature of the arguments. Used by call sites that have seen tainted arguments, {@see
+ * com.oracle.truffle.sl.nodes.expression.SLInvokeNode}, in place of the regular call via interop.
+ * The split is selected here, by the caller, so the arguments of the call are passed as they are.
+ * <p>
+ * Caches the call target of the function like the regular call, {@see SLFunction}, once per
+ * signature seen.
+ */
+public abstract class SLTaintedCallNode extends Node {
+
+  static final int INLINE_CACHE_SIZE = SLFunction.INLINE_CACHE_SIZE;
+
+  /**
+   * @param signature the taint signature of {@code arguments}, not zero
+   */
+  public abstract Object execute(SLFunction function, Object[] arguments, int signature);
+
+  @Specialization(limit = "INLINE_CACHE_SIZE", //
+                  guards = {"function.getCallTarget() == cachedTarget", "signature == cachedSignature"}, //
+                  assumptions = "callTargetStable")
+  @SuppressWarnings("unused")
+  protected static Object doDirect(SLFunction function, Object[] arguments, int signature,
+                  @Cached("function.getCallTargetStable()") Assumption callTargetStable,
+                  @Cached("function.getCallTarget()") RootCallTarget cachedTarget,
+                  @Cached("signature") int cachedSignature,
+                  @Cached("create(taintedSplit(cachedTarget, cachedSignature))") DirectCallNode callNode) {
+    return callNode.call(arguments);
+  }
+
+  @Specialization(replaces = "doDirect")
+  protected static Object doIndirect(SLFunction function, Object[] arguments, int signature,
+                  @Cached IndirectCallNode callNode) {
+    return callNode.call(taintedSplit(function.getCallTarget(), signature), arguments);
+  }
+
+  /**
+   * @return the call target of the split of {@code target}, {@code target} itself for builtins
+   */
+  static RootCallTarget taintedSplit(RootCallTarget target, int signature) {
+    if (target.getRootNode() instanceof SLRootNode) {
+      return ((SLRootNode) target.getRootNode()).getTaintedSplit(signature).getCallTarget();
+    }
+    return target;
+  }
+}
@@ -42,7 +42,9 @@ package com.oracle.truffle.sl.nodes.util;
 
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
@@ -58,6 +60,12 @@ import com.oracle.truffle.sl.runtime.SLString;
 /**
  * The node to normalize any value to an SL value. This is useful to reduce the number of values
  * expression nodes need to expect.
+ * <p>
+ * Property keys are converted without allocating on the common paths: keys of small non-negative
+ * numbers, e.g. {@code obj[i]} in a loop, are taken from a precomputed table, and a node that always
+ * sees {@link SLString} keys with the same characters caches the interned key. Only the
+ * {@link String} is cached, never the {@link SLString} itself, as the AST may be shared between
+ * contexts.
  */
 @TypeSystemReference(SLTypes.class)
 @GenerateUncached
@@ -65,10 +73,36 @@ public abstract class SLToMemberNode extends Node {
 
     static final int LIMIT = 5;
 
+    /**
+     * Number of non-negative integer keys whose {@link String} representation is precomputed.
+     */
+    static final int SMALL_KEYS = 1024;
+
+    @CompilationFinal(dimensions = 1) private static final String[] SMALL_KEY_STRINGS = createSmallKeys();
+
+    private static String[] createSmallKeys() {
+        String[] keys = new String[SMALL_KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = String.valueOf(i).intern();
+        }
+        return keys;
+    }
+
     public abstract String execute(Object value) throws UnknownIdentifierException;
 
     @Specialization
-    protected static String fromString(SLString value) {
+    protected static String fromString(String value) {
+        return value;
+    }
+
+    @Specialization(guards = "value.contentEquals(cachedKey)", limit = "1")
+    protected static String fromCachedSLString(@SuppressWarnings("unused") SLString value,
+                    @Cached("internKey(value)") String cachedKey) {
+        return cachedKey;
+    }
+
+    @Specialization(replaces = "fromCachedSLString")
+    protected static String fromSLString(SLString value) {
         return value.toString();
     }
 
@@ -78,9 +112,8 @@ public abstract class SLToMemberNode extends Node {
     }
 
     @Specialization
-    @TruffleBoundary
     protected static String fromLong(long value) {
-        return String.valueOf(value);
+        return longToString(value);
     }
 
     @Specialization
@@ -106,6 +139,11 @@ public abstract class SLToMemberNode extends Node {
         }
     }
 
+    @TruffleBoundary
+    static String internKey(SLString value) {
+        return value.toString().intern();
+    }
+
     @TruffleBoundary
     private static UnknownIdentifierException error(Object value) {
         return UnknownIdentifierException.create(value.toString());
@@ -116,8 +154,15 @@ public abstract class SLToMemberNode extends Node {
         return value.toString();
     }
 
-    @TruffleBoundary
     private static String longToString(long longValue) {
+        if (longValue >= 0 && longValue < SMALL_KEYS) {
+            return SMALL_KEY_STRINGS[(int) longValue];
+        }
+        return slowLongToString(longValue);
+    }
+
+    @TruffleBoundary
+    private static String slowLongToString(long longValue) {
         return String.valueOf(longValue);
     }
 
@@ -45,10 +45,12 @@ import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.SLTypes;
 import com.oracle.truffle.sl.runtime.SLBigNumber;
 import com.oracle.truffle.sl.runtime.SLFunction;
@@ -60,11 +62,21 @@ import com.oracle.truffle.sl.runtime.SLString;
  * expression nodes need to expect.
  */
 @TypeSystemReference(SLTypes.class)
-@NodeChild
+@NodeChild("valueNode")
 public abstract class SLUnboxNode extends SLExpressionNode {
 
     static final int LIMIT = 5;
 
+    protected abstract SLExpressionNode getValueNode();
+
+    /**
+     * Unboxing does not change the taint of a value.
+     */
+    @Override
+    public int getResultTaint(VirtualFrame frame) {
+        return SLShadowTaint.taintOf(frame, getValueNode());
+    }
+
     @Specialization
     protected static String fromString(String value) {
         return value.toString();
@@ -42,6 +42,7 @@ package com.oracle.truffle.sl.parser;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +58,7 @@ import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.sl.SLLanguage;
 import com.oracle.truffle.sl.nodes.SLExpressionNode;
 import com.oracle.truffle.sl.nodes.SLRootNode;
+import com.oracle.truffle.sl.nodes.SLShadowTaint;
 import com.oracle.truffle.sl.nodes.SLStatementNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLBlockNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLBreakNode;
@@ -66,8 +68,10 @@ import com.oracle.truffle.sl.nodes.controlflow.SLFunctionBodyNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLIfNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLReturnNode;
 import com.oracle.truffle.sl.nodes.controlflow.SLWhileNode;
+import com.oracle.truffle.sl.nodes.expression.SLAddNode;
 import com.oracle.truffle.sl.nodes.expression.SLAddNodeGen;
 import com.oracle.truffle.sl.nodes.expression.SLBigIntegerLiteralNode;
+import com.oracle.truffle.sl.nodes.expression.SLConcatNode;
 import com.oracle.truffle.sl.nodes.expression.SLDivNodeGen;
 import com.oracle.truffle.sl.nodes.expression.SLEqualNodeGen;
 import com.oracle.truffle.sl.nodes.expression.SLFunctionLiteralNode;
@@ -194,7 +198,7 @@ public class SLNodeFactory {
             final SLFunctionBodyNode functionBodyNode = new SLFunctionBodyNode(methodBlock);
             functionBodyNode.setSourceSection(functionSrc.getCharIndex(), functionSrc.getCharLength());
 
-            final SLRootNode rootNode = new SLRootNode(language, frameDescriptorBuilder.build(), functionBodyNode, functionSrc, functionName);
+            final SLRootNode rootNode = new SLRootNode(language, frameDescriptorBuilder.build(), functionBodyNode, functionSrc, functionName, new SLShadowTaint());
             allFunctions.put(functionName, rootNode.getCallTarget());
         }
 
@@ -359,13 +363,13 @@ public class SLNodeFactory {
         if (leftNode == null || rightNode == null) {
             return null;
         }
-        final SLExpressionNode leftUnboxed = SLUnboxNodeGen.create(leftNode);
-        final SLExpressionNode rightUnboxed = SLUnboxNodeGen.create(rightNode);
+        final SLExpressionNode leftUnboxed = createUnbox(leftNode);
+        final SLExpressionNode rightUnboxed = createUnbox(rightNode);
 
         final SLExpressionNode result;
         switch (opToken.getText()) {
             case "+":
-                result = SLAddNodeGen.create(leftUnboxed, rightUnboxed);
+                result = createAdd(leftNode, leftUnboxed, rightUnboxed);
                 break;
             case "*":
                 result = SLMulNodeGen.create(leftUnboxed, rightUnboxed);
@@ -412,6 +416,77 @@ public class SLNodeFactory {
         return result;
     }
 
+    /**
+     * String literals are never boxed, so they are used as operands directly. This also keeps them
+     * visible to {@link #createAdd constant folding}.
+     */
+    private static SLExpressionNode createUnbox(SLExpressionNode node) {
+        if (node instanceof SLStringLiteralNode) {
+            return node;
+        }
+        return SLUnboxNodeGen.create(node);
+    }
+
+    /**
+     * Returns an {@link SLAddNode} for the first "+" of a chain. Once the chain is known to produce
+     * a string, further operands are merged into a single {@link SLConcatNode}, so that a chain like
+     * {@code a + "b" + c + d} concatenates all of its operands at once instead of creating an
+     * intermediate string per operator. As "+" is left associative, a chain always continues in the
+     * left operand.
+     * <p>
+     * A "+" is known to produce a string if one of its operands is a string literal. Other chains,
+     * e.g. numeric ones like {@code a + b + c}, are kept as nested {@link SLAddNode}s, which keep
+     * their specializations for primitive values. The merged node records the source sections of
+     * the operations it replaces and restores them for instruments, {@see SLConcatNode}.
+     * <p>
+     * Adjacent string literals are folded into a single literal. A "+" with a string operand always
+     * results in a string, so {@code x + "a" + "b"} is equivalent to {@code x + "ab"}.
+     */
+    private static SLExpressionNode createAdd(SLExpressionNode leftNode, SLExpressionNode leftUnboxed, SLExpressionNode rightUnboxed) {
+        if (rightUnboxed instanceof SLStringLiteralNode) {
+            SLStringLiteralNode right = (SLStringLiteralNode) rightUnboxed;
+            if (leftNode instanceof SLStringLiteralNode) {
+                // the source section is set by createBinary
+                return new SLStringLiteralNode((((SLStringLiteralNode) leftNode).getValue() + right.getValue()).intern());
+            } else if (leftNode instanceof SLConcatNode) {
+                SLExpressionNode[] operands = ((SLConcatNode) leftNode).getOperandNodes();
+                SLExpressionNode last = operands[operands.length - 1];
+                if (last instanceof SLStringLiteralNode) {
+                    SLExpressionNode[] newOperands = operands.clone();
+                    newOperands[operands.length - 1] = foldLiterals((SLStringLiteralNode) last, right);
+                    return new SLConcatNode(newOperands, ((SLConcatNode) leftNode).getOperatorEnds());
+                }
+            } else if (leftNode instanceof SLAddNode && ((SLAddNode) leftNode).getRightNode() instanceof SLStringLiteralNode) {
+                SLAddNode add = (SLAddNode) leftNode;
+                return SLAddNodeGen.create(add.getLeftNode(), foldLiterals((SLStringLiteralNode) add.getRightNode(), right));
+            }
+        }
+        if (leftNode instanceof SLConcatNode) {
+            SLConcatNode concat = (SLConcatNode) leftNode;
+            SLExpressionNode[] operands = concat.getOperandNodes();
+            SLExpressionNode[] newOperands = Arrays.copyOf(operands, operands.length + 1);
+            newOperands[operands.length] = rightUnboxed;
+            int[] operatorEnds = Arrays.copyOf(concat.getOperatorEnds(), operands.length - 1);
+            operatorEnds[operands.length - 2] = concat.getSourceEndIndex();
+            return new SLConcatNode(newOperands, operatorEnds);
+        } else if (leftNode instanceof SLAddNode && isStringAdd((SLAddNode) leftNode)) {
+            SLAddNode add = (SLAddNode) leftNode;
+            return new SLConcatNode(new SLExpressionNode[]{add.getLeftNode(), add.getRightNode(), rightUnboxed}, new int[]{add.getSourceEndIndex()});
+        }
+        return SLAddNodeGen.create(leftUnboxed, rightUnboxed);
+    }
+
+    private static boolean isStringAdd(SLAddNode add) {
+        return add.getLeftNode() instanceof SLStringLiteralNode || add.getRightNode() instanceof SLStringLiteralNode;
+    }
+
+    private static SLStringLiteralNode foldLiterals(SLStringLiteralNode left, SLStringLiteralNode right) {
+        SLStringLiteralNode result = new SLStringLiteralNode((left.getValue() + right.getValue()).intern());
+        result.setSourceSection(left.getSourceCharIndex(), right.getSourceEndIndex() - left.getSourceCharIndex());
+        result.addExpressionTag();
+        return result;
+    }
+
     /**
      * Returns an {@link SLInvokeNode} for the given parameters.
      *
@@ -426,7 +501,8 @@ public class SLNodeFactory {
             return null;
         }
 
-        final SLExpressionNode result = new SLInvokeNode(functionNode, parameterNodes.toArray(new SLExpressionNode[parameterNodes.size()]));
+        final SLInvokeNode result = new SLInvokeNode(functionNode, parameterNodes.toArray(new SLExpressionNode[parameterNodes.size()]));
+        result.setTaintPolicy(language.getTaintPolicy());
 
         final int startPos = functionNode.getSourceCharIndex();
         final int endPos = finalToken.getStartIndex() + finalToken.getText().length();
@@ -1,7 +1,5 @@
 package com.oracle.truffle.sl.runtime;
 
-import java.util.Arrays;
-
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -46,6 +44,14 @@ public class InteropArray implements TruffleObject {
   @TruffleBoundary
   @ExportMessage
   String toDisplayString(boolean allowSideEffects) {
-    return Arrays.toString(values);
+    InteropLibrary elements = InteropLibrary.getUncached();
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(elements.toDisplayString(values[i], allowSideEffects));
+    }
+    return sb.append(']').toString();
   }
 }
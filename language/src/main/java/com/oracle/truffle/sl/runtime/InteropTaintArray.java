@@ -0,0 +1,77 @@
+package com.oracle.truffle.sl.runtime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * Read-only view of {@link SLTaintRanges}, exposing the taint label of every character as an array element.
+ * Untainted characters read as {@link SLNull#SINGLETON}. Characters carrying a single label read as
+ * the label, characters carrying several labels as an array of their labels.
+ * <p>
+ * Unlike {@link InteropArray}, the per-character labels are never materialized, so the view of
+ * an untainted string of any length, which shares {@link SLTaintRanges#NONE}, costs a single small object.
+ */
+@ExportLibrary(InteropLibrary.class)
+@SuppressWarnings("static-method")
+public final class InteropTaintArray implements TruffleObject {
+
+  private final SLTaintRanges taint;
+
+  private final int length;
+
+  /**
+   * Maps the label set ids stored in {@link #taint} back to the label objects.
+   */
+  private final SLTaintLabels labels;
+
+  public InteropTaintArray(SLTaintRanges taint, int length, SLTaintLabels labels) {
+    this.taint = taint;
+    this.length = length;
+    this.labels = labels;
+  }
+
+  private Object toLabel(int labelSetId) {
+    return labelSetId == SLTaintRanges.UNTAINTED ? SLNull.SINGLETON : labels.toInterop(labelSetId);
+  }
+
+  @ExportMessage
+  static boolean hasArrayElements(InteropTaintArray receiver) {
+    return true;
+  }
+
+  @ExportMessage
+  Object readArrayElement(long index) throws InvalidArrayIndexException {
+    if (!isArrayElementReadable(index)) {
+      throw InvalidArrayIndexException.create(index);
+    }
+    return toLabel(taint.labelAt((int) index));
+  }
+
+  @ExportMessage
+  long getArraySize() {
+    return length;
+  }
+
+  @ExportMessage
+  boolean isArrayElementReadable(long index) {
+    return Long.compareUnsigned(index, length) < 0;
+  }
+
+  @TruffleBoundary
+  @ExportMessage
+  String toDisplayString(boolean allowSideEffects) {
+    StringBuilder sb = new StringBuilder("[");
+    int run = 0;
+    for (int i = 0; i < length; i++) {
+      while (run < taint.size() && taint.getEnd(run) <= i) { run++; }
+      boolean tainted = run < taint.size() && taint.getStart(run) <= i;
+      if (i > 0) { sb.append(", "); }
+      sb.append(tainted ? labels.toDisplayString(taint.getLabelSetId(run)) : SLNull.SINGLETON);
+    }
+    return sb.append(']').toString();
+  }
+}
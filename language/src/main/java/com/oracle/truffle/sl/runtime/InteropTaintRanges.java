@@ -0,0 +1,74 @@
+package com.oracle.truffle.sl.runtime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * Read-only view of the runs of {@link SLTaintRanges}, exposing them as a flat array of
+ * {@code [start0, end0, label0, start1, end1, label1, ...]} triples.
+ * <p>
+ * In contrast to {@link InteropTaintArray}, the size of the view is proportional to the number of runs,
+ * not to the length of the string. Labels are mapped like in {@link InteropTaintArray}.
+ */
+@ExportLibrary(InteropLibrary.class)
+@SuppressWarnings("static-method")
+public final class InteropTaintRanges implements TruffleObject {
+
+  private static final int TRIPLE = 3;
+
+  private final SLTaintRanges taint;
+
+  private final SLTaintLabels labels;
+
+  public InteropTaintRanges(SLTaintRanges taint, SLTaintLabels labels) {
+    this.taint = taint;
+    this.labels = labels;
+  }
+
+  @ExportMessage
+  static boolean hasArrayElements(InteropTaintRanges receiver) {
+    return true;
+  }
+
+  @ExportMessage
+  Object readArrayElement(long index) throws InvalidArrayIndexException {
+    if (!isArrayElementReadable(index)) {
+      throw InvalidArrayIndexException.create(index);
+    }
+    int run = (int) (index / TRIPLE);
+    switch ((int) (index % TRIPLE)) {
+      case 0:
+        return (long) taint.getStart(run);
+      case 1:
+        return (long) taint.getEnd(run);
+      default:
+        return labels.toInterop(taint.getLabelSetId(run));
+    }
+  }
+
+  @ExportMessage
+  long getArraySize() {
+    return (long) taint.size() * TRIPLE;
+  }
+
+  @ExportMessage
+  boolean isArrayElementReadable(long index) {
+    return Long.compareUnsigned(index, getArraySize()) < 0;
+  }
+
+  @TruffleBoundary
+  @ExportMessage
+  String toDisplayString(boolean allowSideEffects) {
+    StringBuilder sb = new StringBuilder("[");
+    for (int run = 0; run < taint.size(); run++) {
+      if (run > 0) { sb.append(", "); }
+      sb.append(taint.getStart(run)).append(", ").append(taint.getEnd(run)).append(", ");
+      sb.append(labels.toDisplayString(taint.getLabelSetId(run)));
+    }
+    return sb.append(']').toString();
+  }
+}
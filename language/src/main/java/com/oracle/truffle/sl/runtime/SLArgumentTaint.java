@@ -0,0 +1,41 @@
+package com.oracle.truffle.sl.runtime;
+
+/**
+ * Taint checks of call arguments.
+ * <p>
+ * Every {@link com.oracle.truffle.sl.nodes.expression.SLInvokeNode} profiles which argument
+ * positions were ever tainted as a bit mask, the <em>taint signature</em> of the call site. Calls
+ * passing tainted arguments select the split of the SL function for the signature of their current
+ * arguments, {@see com.oracle.truffle.sl.nodes.SLRootNode#getTaintedSplit(int)}, so the callee knows
+ * which of its arguments may be tainted at all. The profile stays with the call site: the callee
+ * receives exactly the arguments of the call, so debuggers, builtins and functions of other
+ * languages never see the profile.
+ */
+public final class SLArgumentTaint {
+
+  /** The signature of a function that may receive tainted values at every position. */
+  public static final int ALL = -1;
+
+  private SLArgumentTaint() {
+  }
+
+  /**
+   * @param index the position of an argument
+   * @return the bit of {@code index} in a taint signature, positions from 31 on share the last bit
+   */
+  public static int bit(int index) {
+    return 1 << Math.min(index, 31);
+  }
+
+  /**
+   * @param value an argument
+   * @return whether {@code value} carries taint, i.e. is a tainted string, a tainted number or an
+   *         array with tainted elements
+   */
+  public static boolean isTainted(Object value) {
+    if (value instanceof SLString) {
+      return ((SLString) value).isTainted();
+    }
+    return value instanceof SLTaintedNumber || (value instanceof SLArray && ((SLArray) value).isTainted());
+  }
+}
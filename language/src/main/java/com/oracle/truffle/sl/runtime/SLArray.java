@@ -0,0 +1,300 @@
+package com.oracle.truffle.sl.runtime;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.sl.SLLanguage;
+
+/**
+ * Growable array of SL values, created by {@code newArray()} and extended by {@code push} or by
+ * writing the element at index {@link #getSize()}.
+ * <p>
+ * The elements are stored in one of the following strategies, chosen by the values written so far:
+ * <ul>
+ *   <li>empty: no storage is allocated until the first element is written,</li>
+ *   <li>{@code long[]}: all elements are numbers fitting into a {@code long}, tainted or not,</li>
+ *   <li>{@code boolean[]}: all elements are booleans,</li>
+ *   <li>{@code Object[]}: any other mix of values.</li>
+ * </ul>
+ * A strategy is only ever generalized to {@code Object[]}, never narrowed again.
+ * <p>
+ * Next to the elements, the array keeps a taint channel recording the label set id of every element
+ * (the union of the labels of all characters of a string, the labels of a {@link SLTaintedNumber},
+ * {@link SLTaintRanges#UNTAINTED} if the element is not tainted). The channel is only allocated once the first tainted element is written, so arrays
+ * of untainted values pay a single {@code null} check per write. A {@code long[]} stores a
+ * {@link SLTaintedNumber} unwrapped, its labels are only kept in the channel. The number is boxed
+ * again when the element is read.
+ */
+@ExportLibrary(InteropLibrary.class)
+@SuppressWarnings("static-method")
+public final class SLArray implements TruffleObject {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  /**
+   * {@code null}, a {@code long[]}, a {@code boolean[]} or an {@code Object[]}.
+   */
+  private Object storage;
+
+  private int size;
+
+  /**
+   * The label set id of every element, {@code null} while no element was ever tainted.
+   */
+  private int[] taint;
+
+  /**
+   * The number of tainted elements.
+   */
+  private int taintedCount;
+
+  /**
+   * The label table of the language, to join the labels of tainted strings.
+   */
+  private final SLTaintLabels labels;
+
+  /**
+   * @param labels the label table of the language
+   */
+  public SLArray(SLTaintLabels labels) {
+    this.labels = labels;
+  }
+
+  /**
+   * @return the number of elements
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @return whether at least one element is tainted
+   */
+  public boolean isTainted() {
+    return taintedCount > 0;
+  }
+
+  /**
+   * @param index the index of an element
+   * @return the label set id of the element, {@link SLTaintRanges#UNTAINTED} if it is not tainted
+   */
+  public int getLabelSetId(int index) {
+    return taint == null ? SLTaintRanges.UNTAINTED : taint[index];
+  }
+
+  /**
+   * Appends {@code value}.
+   * @param value the new last element
+   */
+  public void push(Object value) {
+    set(size, value);
+  }
+
+  /**
+   * @param index the index of an element, in {@code [0, size)}
+   * @return the element
+   */
+  public Object get(int index) {
+    if (storage instanceof long[]) {
+      long value = ((long[]) storage)[index];
+      int labelSetId = getLabelSetId(index);
+      return labelSetId == SLTaintRanges.UNTAINTED ? (Object) value : new SLTaintedNumber(value, labelSetId);
+    } else if (storage instanceof boolean[]) {
+      return ((boolean[]) storage)[index];
+    }
+    return ((Object[]) storage)[index];
+  }
+
+  /**
+   * Replaces the element at {@code index}, or appends {@code value} if {@code index} is the size.
+   * @param index the index of the element, in {@code [0, size]}
+   * @param value the new element
+   */
+  public void set(int index, Object value) {
+    SLString.promote(value);
+    if (index == size) {
+      if (storage == null) {
+        storage = allocate(value);
+      } else if (size == capacity()) {
+        grow();
+      }
+      size++;
+    }
+    if (storage instanceof long[]) {
+      if (value instanceof Long) {
+        ((long[]) storage)[index] = (long) value;
+        setTaint(index, value);
+        return;
+      } else if (value instanceof SLTaintedNumber) {
+        ((long[]) storage)[index] = ((SLTaintedNumber) value).getValue();
+        setTaint(index, value);
+        return;
+      }
+      generalize();
+    } else if (storage instanceof boolean[]) {
+      if (value instanceof Boolean) {
+        ((boolean[]) storage)[index] = (boolean) value;
+        setTaint(index, value);
+        return;
+      }
+      generalize();
+    }
+    ((Object[]) storage)[index] = value;
+    setTaint(index, value);
+  }
+
+  private static Object allocate(Object value) {
+    if (value instanceof Long || value instanceof SLTaintedNumber) {
+      return new long[INITIAL_CAPACITY];
+    } else if (value instanceof Boolean) {
+      return new boolean[INITIAL_CAPACITY];
+    }
+    return new Object[INITIAL_CAPACITY];
+  }
+
+  private int capacity() {
+    if (storage instanceof long[]) {
+      return ((long[]) storage).length;
+    } else if (storage instanceof boolean[]) {
+      return ((boolean[]) storage).length;
+    }
+    return ((Object[]) storage).length;
+  }
+
+  @TruffleBoundary
+  private void grow() {
+    int capacity = size * 2;
+    if (storage instanceof long[]) {
+      storage = Arrays.copyOf((long[]) storage, capacity);
+    } else if (storage instanceof boolean[]) {
+      storage = Arrays.copyOf((boolean[]) storage, capacity);
+    } else {
+      storage = Arrays.copyOf((Object[]) storage, capacity);
+    }
+    if (taint != null) {
+      taint = growTaint(taint, capacity);
+    }
+  }
+
+  /**
+   * Switches from a primitive strategy to {@code Object[]}.
+   */
+  @TruffleBoundary
+  private void generalize() {
+    Object[] generalized = new Object[capacity()];
+    for (int i = 0; i < size; i++) {
+      generalized[i] = get(i);
+    }
+    storage = generalized;
+  }
+
+  private void setTaint(int index, Object value) {
+    int labelSetId = labelSetIdOf(value);
+    if (taint == null) {
+      if (labelSetId == SLTaintRanges.UNTAINTED) {
+        return;
+      }
+      taint = growTaint(new int[0], capacity());
+    }
+    int previous = taint[index];
+    taint[index] = labelSetId;
+    if (previous == SLTaintRanges.UNTAINTED && labelSetId != SLTaintRanges.UNTAINTED) {
+      taintedCount++;
+    } else if (previous != SLTaintRanges.UNTAINTED && labelSetId == SLTaintRanges.UNTAINTED) {
+      taintedCount--;
+    }
+  }
+
+  private int labelSetIdOf(Object value) {
+    if (value instanceof SLString) {
+      SLString string = (SLString) value;
+      return string.isTainted() ? string.getJoinedLabelSetId(labels) : SLTaintRanges.UNTAINTED;
+    } else if (value instanceof SLTaintedNumber) {
+      return ((SLTaintedNumber) value).getLabelSetId();
+    }
+    return SLTaintRanges.UNTAINTED;
+  }
+
+  private static int[] growTaint(int[] ids, int capacity) {
+    int[] grown = Arrays.copyOf(ids, capacity);
+    Arrays.fill(grown, ids.length, capacity, SLTaintRanges.UNTAINTED);
+    return grown;
+  }
+
+  @ExportMessage
+  boolean hasLanguage() {
+    return true;
+  }
+
+  @ExportMessage
+  Class<? extends TruffleLanguage<?>> getLanguage() {
+    return SLLanguage.class;
+  }
+
+  @ExportMessage
+  boolean hasMetaObject() {
+    return true;
+  }
+
+  @ExportMessage
+  Object getMetaObject() {
+    return SLType.ARRAY;
+  }
+
+  @ExportMessage
+  boolean hasArrayElements() {
+    return true;
+  }
+
+  @ExportMessage
+  long getArraySize() {
+    return size;
+  }
+
+  @ExportMessage(name = "isArrayElementReadable")
+  @ExportMessage(name = "isArrayElementModifiable")
+  boolean isArrayElementReadable(long index) {
+    return Long.compareUnsigned(index, size) < 0;
+  }
+
+  @ExportMessage
+  boolean isArrayElementInsertable(long index) {
+    return index == size;
+  }
+
+  @ExportMessage
+  Object readArrayElement(long index) throws InvalidArrayIndexException {
+    if (!isArrayElementReadable(index)) {
+      throw InvalidArrayIndexException.create(index);
+    }
+    return get((int) index);
+  }
+
+  @ExportMessage
+  void writeArrayElement(long index, Object value) throws InvalidArrayIndexException {
+    if (Long.compareUnsigned(index, size) > 0) {
+      throw InvalidArrayIndexException.create(index);
+    }
+    set((int) index, value);
+  }
+
+  @TruffleBoundary
+  @ExportMessage
+  String toDisplayString(boolean allowSideEffects) {
+    InteropLibrary elements = InteropLibrary.getUncached();
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(elements.toDisplayString(get(i), allowSideEffects));
+    }
+    return sb.append(']').toString();
+  }
+}
@@ -43,15 +43,24 @@ package com.oracle.truffle.sl.runtime;
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.TruffleLanguage.Env;
@@ -64,6 +73,7 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.sl.SLException;
 import com.oracle.truffle.sl.SLLanguage;
 import com.oracle.truffle.sl.builtins.SLAddToHostClassPathBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLBuiltinNode;
@@ -77,11 +87,17 @@ import com.oracle.truffle.sl.builtins.SLImportBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLIsExecutableBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLIsInstanceBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLIsNullBuiltinFactory;
+import com.oracle.truffle.sl.builtins.SLLengthBuiltinFactory;
+import com.oracle.truffle.sl.builtins.SLNewArrayBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLJavaTypeBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLNanoTimeBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLNewObjectBuiltinFactory;
+import com.oracle.truffle.sl.builtins.SLParseIntBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLPrintlnBuiltin;
 import com.oracle.truffle.sl.builtins.SLPrintlnBuiltinFactory;
+import com.oracle.truffle.sl.builtins.SLPushBuiltinFactory;
+import com.oracle.truffle.sl.builtins.SLReadLinesBuiltin;
+import com.oracle.truffle.sl.builtins.SLReadLinesBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLReadlnBuiltin;
 import com.oracle.truffle.sl.builtins.SLReadlnBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLRegisterShutdownHookBuiltinFactory;
@@ -89,9 +105,16 @@ import com.oracle.truffle.sl.builtins.SLStackTraceBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLTypeOfBuiltinFactory;
 import com.oracle.truffle.sl.builtins.SLWrapPrimitiveBuiltinFactory;
 import com.oracle.truffle.sl.builtins.taint.SLAddTaintBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLCharAtBuiltinFactory;
 import com.oracle.truffle.sl.builtins.taint.SLGetTaintBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLGetTaintRangesBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLHasTaintLabelBuiltinFactory;
 import com.oracle.truffle.sl.builtins.taint.SLIsTaintedBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLNextTaintedBuiltinFactory;
 import com.oracle.truffle.sl.builtins.taint.SLRemoveTaintBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLSubstringBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLTaintLabelsInBuiltinFactory;
+import com.oracle.truffle.sl.builtins.taint.SLTaintedLengthBuiltinFactory;
 
 import org.graalvm.polyglot.Context;
 
@@ -112,14 +135,28 @@ public final class SLContext {
     private final SLFunctionRegistry functionRegistry;
     private final AllocationReporter allocationReporter;
     private final List<SLFunction> shutdownHooks = new ArrayList<>();
+    private final int taintIndexThreshold;
+    private final Assumption untainted = Truffle.getRuntime().createAssumption("no tainted values");
+    private final SLTaintReporter taintReporter;
+    private final int inputLabelSetId;
+
+    /**
+     * Large enough that {@link SLReadLinesBuiltin} reads batch inputs with few reads from the
+     * underlying stream.
+     */
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
 
     public SLContext(SLLanguage language, TruffleLanguage.Env env, List<NodeFactory<? extends SLBuiltinNode>> externalBuiltins) {
         this.env = env;
-        this.input = new BufferedReader(new InputStreamReader(env.in()));
+        this.input = new BufferedReader(new InputStreamReader(env.in()), INPUT_BUFFER_SIZE);
         this.output = new PrintWriter(env.out(), true);
         this.language = language;
         this.allocationReporter = env.lookup(AllocationReporter.class);
         this.functionRegistry = new SLFunctionRegistry(language);
+        this.taintIndexThreshold = env.getOptions().get(SLLanguage.TaintIndexThreshold);
+        this.taintReporter = createTaintReporter(language, env);
+        String inputTaint = env.getOptions().get(SLLanguage.InputTaint);
+        this.inputLabelSetId = inputTaint.isEmpty() ? SLTaintRanges.UNTAINTED : language.getTaintLabels().internSet(inputTaint);
         installBuiltins();
         for (NodeFactory<? extends SLBuiltinNode> builtin : externalBuiltins) {
             installBuiltin(builtin);
@@ -152,6 +189,14 @@ public final class SLContext {
         return input;
     }
 
+    /**
+     * Returns the label set id attached to every line read from the {@link #getInput() input},
+     * {@link SLTaintRanges#UNTAINTED} if lines are read untainted, see {@link SLLanguage#InputTaint}.
+     */
+    public int getInputLabelSetId() {
+        return inputLabelSetId;
+    }
+
     /**
      * The default default, i.e., the output for the {@link SLPrintlnBuiltin}. To allow unit
      * testing, we do not use {@link System#out} directly.
@@ -160,6 +205,122 @@ public final class SLContext {
         return output;
     }
 
+    /**
+     * Returns the minimum number of taint runs of a string to build an index for range queries, see
+     * {@link SLTaintRanges#labelSetIn(int, int, SLTaintLabels, int)}.
+     */
+    public int getTaintIndexThreshold() {
+        return taintIndexThreshold;
+    }
+
+    /**
+     * Returns whether no tainted value was created in the context of {@code node} yet. While this
+     * holds, every string is untainted, so nodes can operate on plain {@link String}s without any
+     * taint checks. The check is constant folded in compiled code while no context of the language
+     * has created a tainted value, {@see SLLanguage#getUntaintedAssumption()}. Afterwards, it folds
+     * only if the context is constant, i.e. if the AST is not shared between contexts.
+     */
+    public static boolean isUntainted(Node node) {
+        return SLLanguage.get(node).getUntaintedAssumption().isValid() || get(node).untainted.isValid();
+    }
+
+    /**
+     * Must be called by every taint source before it creates a tainted value.
+     */
+    public void notifyTainted() {
+        if (untainted.isValid()) {
+            CompilerDirectives.transferToInterpreter();
+            untainted.invalidate();
+            language.getUntaintedAssumption().invalidate();
+        }
+    }
+
+    /**
+     * Returns the reporter of taint violations, {@code null} if neither a
+     * {@link SLLanguage#TaintViolationLog log file} nor a
+     * {@link SLLanguage#installTaintViolationHandler handler} is configured and no sink of the taint
+     * policy reports violations. Reporting sinks report to the error stream by default.
+     */
+    public SLTaintReporter getTaintReporter() {
+        return taintReporter;
+    }
+
+    private static SLTaintReporter createTaintReporter(SLLanguage language, Env env) {
+        String path = env.getOptions().get(SLLanguage.TaintViolationLog);
+        SLTaintReporter.Handler handler;
+        if (!path.isEmpty()) {
+            handler = new WriterHandler(openTaintViolationLog(env, path), true);
+        } else {
+            handler = SLLanguage.getTaintViolationHandler();
+            if (handler == null) {
+                if (!language.getTaintPolicy().hasReportingSinks()) {
+                    return null;
+                }
+                handler = new WriterHandler(new BufferedWriter(new OutputStreamWriter(env.err(), StandardCharsets.UTF_8)), false);
+            }
+        }
+        return new SLTaintReporter(SLTaintReporter.DEFAULT_CAPACITY, language.getTaintLabels(), handler);
+    }
+
+    private static BufferedWriter openTaintViolationLog(Env env, String path) {
+        try {
+            return env.getPublicTruffleFile(path).newBufferedWriter(StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException | SecurityException e) {
+            throw new SLException("Cannot open taint violation log " + path + ": " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Reports all pending taint violations and stops the reporter, called when the context is
+     * disposed.
+     */
+    public void closeTaintReporter() {
+        if (taintReporter != null) {
+            taintReporter.close();
+        }
+    }
+
+    /**
+     * Writes the taint violations to a file or to the error stream, one per line.
+     */
+    private static final class WriterHandler implements SLTaintReporter.Handler {
+
+        private final BufferedWriter writer;
+
+        /** Whether the writer is closed with the reporter, {@code false} for the error stream. */
+        private final boolean owned;
+
+        WriterHandler(BufferedWriter writer, boolean owned) {
+            this.writer = writer;
+            this.owned = owned;
+        }
+
+        @Override
+        public void report(List<String> violations) {
+            try {
+                for (String violation : violations) {
+                    writer.write(violation);
+                    writer.newLine();
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!owned) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     /**
      * Returns the registry of all functions that are currently defined.
      */
@@ -192,12 +353,24 @@ public final class SLContext {
         installBuiltin(SLExitBuiltinFactory.getInstance());
         installBuiltin(SLRegisterShutdownHookBuiltinFactory.getInstance());
         installBuiltin(SLAddToHostClassPathBuiltinFactory.getInstance());
+        installBuiltin(SLNewArrayBuiltinFactory.getInstance());
+        installBuiltin(SLPushBuiltinFactory.getInstance());
+        installBuiltin(SLLengthBuiltinFactory.getInstance());
+        installBuiltin(SLParseIntBuiltinFactory.getInstance());
+        installBuiltin(SLReadLinesBuiltinFactory.getInstance());
 
         // taint tracking related builtins
         installBuiltin(SLAddTaintBuiltinFactory.getInstance());
         installBuiltin(SLIsTaintedBuiltinFactory.getInstance());
         installBuiltin(SLGetTaintBuiltinFactory.getInstance());
         installBuiltin(SLRemoveTaintBuiltinFactory.getInstance());
+        installBuiltin(SLGetTaintRangesBuiltinFactory.getInstance());
+        installBuiltin(SLHasTaintLabelBuiltinFactory.getInstance());
+        installBuiltin(SLTaintedLengthBuiltinFactory.getInstance());
+        installBuiltin(SLTaintLabelsInBuiltinFactory.getInstance());
+        installBuiltin(SLNextTaintedBuiltinFactory.getInstance());
+        installBuiltin(SLSubstringBuiltinFactory.getInstance());
+        installBuiltin(SLCharAtBuiltinFactory.getInstance());
     }
 
     public void installBuiltin(NodeFactory<? extends SLBuiltinNode> factory) {
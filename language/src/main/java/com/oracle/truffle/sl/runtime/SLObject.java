@@ -40,6 +40,8 @@
  */
 package com.oracle.truffle.sl.runtime;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -73,6 +75,16 @@ import com.oracle.truffle.sl.SLLanguage;
  * runtime know that this class specifies the interop messages (i.e. operations) that SL can do on
  * {@link SLObject} instances.
  *
+ * Members with non-negative integer keys are stored separately from the {@link DynamicObject}
+ * properties, as long as they are dense, i.e. as long as every key is at most the number of such
+ * elements. They are stored in a {@code long[]} while all of them are {@code long} values and in an
+ * {@code Object[]} otherwise. Using an object like an array therefore neither converts the keys to
+ * {@link String}s nor changes the {@link Shape} of the object. The elements are an internal
+ * representation only: SL property nodes access them directly with {@code long} keys, everybody
+ * else, including other languages, sees them as members with the equivalent {@link String} keys,
+ * just like any other property. Integer keys outside of the dense range are stored as regular
+ * properties.
+ *
  * @see ExportLibrary
  * @see ExportMessage
  * @see InteropLibrary
@@ -82,6 +94,21 @@ import com.oracle.truffle.sl.SLLanguage;
 public final class SLObject extends DynamicObject implements TruffleObject {
     protected static final int CACHE_LIMIT = 3;
 
+    private static final int INITIAL_ELEMENT_CAPACITY = 8;
+
+    /**
+     * The elements with the keys {@code [0, elementCount)}, a {@code long[]} or an {@code Object[]}.
+     * {@code null} until the first element is written.
+     */
+    private Object elements;
+    private int elementCount;
+
+    /**
+     * Whether a property with an integer key exists, because it was written outside of the dense
+     * range. Such a property is moved to the elements once the elements reach its key.
+     */
+    private boolean hasIndexProperties;
+
     public SLObject(Shape shape) {
         super(shape);
     }
@@ -142,6 +169,8 @@ public final class SLObject extends DynamicObject implements TruffleObject {
                     @CachedLibrary("this") DynamicObjectLibrary objectLibrary) throws UnknownIdentifierException {
         if (objectLibrary.containsKey(this, member)) {
             objectLibrary.removeKey(this, member);
+        } else if (isElementKey(member)) {
+            removeElement((int) toIndex(member), objectLibrary);
         } else {
             throw UnknownIdentifierException.create(member);
         }
@@ -150,7 +179,11 @@ public final class SLObject extends DynamicObject implements TruffleObject {
     @ExportMessage
     Object getMembers(@SuppressWarnings("unused") boolean includeInternal,
                     @CachedLibrary("this") DynamicObjectLibrary objectLibrary) {
-        return new Keys(objectLibrary.getKeyArray(this));
+        Object[] propertyKeys = objectLibrary.getKeyArray(this);
+        if (elementCount == 0) {
+            return new Keys(propertyKeys);
+        }
+        return new Keys(withElementKeys(propertyKeys));
     }
 
     @ExportMessage(name = "isMemberReadable")
@@ -158,7 +191,7 @@ public final class SLObject extends DynamicObject implements TruffleObject {
     @ExportMessage(name = "isMemberRemovable")
     boolean existsMember(String member,
                     @CachedLibrary("this") DynamicObjectLibrary objectLibrary) {
-        return objectLibrary.containsKey(this, member);
+        return objectLibrary.containsKey(this, member) || isElementKey(member);
     }
 
     @ExportMessage
@@ -208,6 +241,9 @@ public final class SLObject extends DynamicObject implements TruffleObject {
                     @CachedLibrary("this") DynamicObjectLibrary objectLibrary) throws UnknownIdentifierException {
         Object result = objectLibrary.getOrDefault(this, name, null);
         if (result == null) {
+            if (isElementKey(name)) {
+                return getElement((int) toIndex(name));
+            }
             /* Property does not exist. */
             throw UnknownIdentifierException.create(name);
         }
@@ -216,10 +252,200 @@ public final class SLObject extends DynamicObject implements TruffleObject {
 
     /**
      * {@link DynamicObjectLibrary} provides the polymorphic inline cache for writing properties.
+     * Only names starting with a digit are parsed as element keys.
      */
     @ExportMessage
     void writeMember(String name, Object value,
                     @CachedLibrary("this") DynamicObjectLibrary objectLibrary) {
+        SLString.promote(value);
+        if (startsWithDigit(name)) {
+            long index = toIndex(name);
+            if (index >= 0 && index <= elementCount) {
+                writeElement((int) index, value);
+                return;
+            }
+            if (index >= 0) {
+                hasIndexProperties = true;
+            }
+        }
         objectLibrary.put(this, name, value);
     }
+
+    /**
+     * @return whether {@code index} is the key of an element, used by the SL property nodes
+     */
+    public boolean isElement(long index) {
+        return index >= 0 && index < elementCount;
+    }
+
+    /**
+     * @return whether {@code index} is the key of an element or the key of the next element to
+     *         append, used by the SL property nodes
+     */
+    public boolean isElementWritable(long index) {
+        return index >= 0 && index <= elementCount;
+    }
+
+    /**
+     * @param index the key of an element, {@see #isElement(long)}
+     * @return the element
+     */
+    public Object readElement(long index) {
+        return getElement((int) index);
+    }
+
+    /**
+     * Writes or appends an element, {@see #isElementWritable(long)}.
+     */
+    public void writeElement(long index, Object value) {
+        SLString.promote(value);
+        writeElement((int) index, value);
+    }
+
+    private Object getElement(int index) {
+        if (elements instanceof long[]) {
+            return ((long[]) elements)[index];
+        }
+        return ((Object[]) elements)[index];
+    }
+
+    /**
+     * Writes the element at {@code index}, which must be at most {@link #elementCount}.
+     */
+    private void writeElement(int index, Object value) {
+        if (index == elementCount) {
+            if (elements == null) {
+                elements = value instanceof Long ? new long[INITIAL_ELEMENT_CAPACITY] : new Object[INITIAL_ELEMENT_CAPACITY];
+            } else if (index == capacity()) {
+                growElements();
+            }
+            elementCount++;
+            setElement(index, value);
+            if (hasIndexProperties) {
+                absorbIndexProperties(index);
+            }
+            return;
+        }
+        setElement(index, value);
+    }
+
+    private void setElement(int index, Object value) {
+        if (elements instanceof long[]) {
+            if (value instanceof Long) {
+                ((long[]) elements)[index] = (long) value;
+                return;
+            }
+            generalizeElements();
+        }
+        ((Object[]) elements)[index] = value;
+    }
+
+    /**
+     * Moves the properties with integer keys that became part of the dense range after the element
+     * at {@code index} was appended into the elements.
+     */
+    @TruffleBoundary
+    private void absorbIndexProperties(int index) {
+        DynamicObjectLibrary objectLibrary = DynamicObjectLibrary.getUncached();
+        /* The property with this key is superseded by the element. */
+        objectLibrary.removeKey(this, indexToKey(index));
+        Object next;
+        while ((next = objectLibrary.getOrDefault(this, indexToKey(elementCount), null)) != null) {
+            objectLibrary.removeKey(this, indexToKey(elementCount));
+            if (elementCount == capacity()) {
+                growElements();
+            }
+            elementCount++;
+            setElement(elementCount - 1, next);
+        }
+    }
+
+    /**
+     * Removes the element at {@code index}. The elements after it are no longer dense, so they are
+     * moved to regular properties.
+     */
+    @TruffleBoundary
+    private void removeElement(int index, DynamicObjectLibrary objectLibrary) {
+        for (int i = index + 1; i < elementCount; i++) {
+            objectLibrary.put(this, indexToKey(i), getElement(i));
+            hasIndexProperties = true;
+        }
+        if (elements instanceof Object[]) {
+            Arrays.fill((Object[]) elements, index, elementCount, null);
+        }
+        elementCount = index;
+    }
+
+    @TruffleBoundary
+    private Object[] withElementKeys(Object[] propertyKeys) {
+        Object[] keys = new Object[elementCount + propertyKeys.length];
+        for (int i = 0; i < elementCount; i++) {
+            keys[i] = indexToKey(i);
+        }
+        System.arraycopy(propertyKeys, 0, keys, elementCount, propertyKeys.length);
+        return keys;
+    }
+
+    private int capacity() {
+        return elements instanceof long[] ? ((long[]) elements).length : ((Object[]) elements).length;
+    }
+
+    @TruffleBoundary
+    private void growElements() {
+        if (elements instanceof long[]) {
+            elements = Arrays.copyOf((long[]) elements, elementCount * 2);
+        } else {
+            elements = Arrays.copyOf((Object[]) elements, elementCount * 2);
+        }
+    }
+
+    /**
+     * Switches from the {@code long[]} to the {@code Object[]} storage once a value that is not a
+     * {@code long} is written.
+     */
+    @TruffleBoundary
+    private void generalizeElements() {
+        long[] values = (long[]) elements;
+        Object[] generalized = new Object[values.length];
+        for (int i = 0; i < elementCount; i++) {
+            generalized[i] = values[i];
+        }
+        elements = generalized;
+    }
+
+    private boolean isElementKey(String name) {
+        if (elementCount == 0 || !startsWithDigit(name)) {
+            return false;
+        }
+        long index = toIndex(name);
+        return index >= 0 && index < elementCount;
+    }
+
+    /**
+     * Returns the index denoted by a member name, i.e. the value of a non-negative integer without
+     * leading zeros, or {@code -1} if the name does not denote an index.
+     */
+    private static long toIndex(String name) {
+        int length = name.length();
+        if (length == 0 || length > 9 || (length > 1 && name.charAt(0) == '0')) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    private static boolean startsWithDigit(String name) {
+        return !name.isEmpty() && name.charAt(0) >= '0' && name.charAt(0) <= '9';
+    }
+
+    private static String indexToKey(int index) {
+        return String.valueOf(index);
+    }
 }
@@ -1,78 +1,232 @@
 package com.oracle.truffle.sl.runtime;
 
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
-import com.oracle.truffle.sl.nodes.SLTypes;
 
 /**
  * This class is used to propagate taint in {@link String}s in Simple Language.
  * Calls to {@link SLAddTaintBuiltin} return a {@link SLString} instead of {@link String}.
  * {@link SLString}s pack a certain runtime overhead, as the taint information has to be propagated
- * using array copies, which are somewhat expensive.
+ * upon concatenation.
  * <p>
- * For a newly created {@link SLString}, every Taint information is the same.
- * The Taint is shared between every slot of {@link SLString#taint}.
+ * The taint is stored run-length encoded as {@link SLTaintRanges}, so a newly created {@link SLString}
+ * carries a single run covering every character. All operations on the taint work on these runs,
+ * their cost therefore scales with the number of runs, not with the length of the string.
  * <p>
- * Every {@code value != SLNull.SINGLETON} inside {@link SLString#taint} is considered to be a valid Taint marker.
- * For example, tainting with {@code false} is still considered to be tainted.
+ * Long concatenations are represented as a rope, i.e. a {@link SLString} referencing its {@link #left}
+ * and {@link #right} part. The characters and the taint of a rope are only assembled once they are
+ * actually needed, e.g. by {@link #asString()} or {@link #getTaint()}. Building a string by
+ * repeatedly appending to it therefore costs linear instead of quadratic time.
+ * <p>
+ * Substrings are represented as a slice, i.e. a {@link SLString} referencing the flat {@link #parent}
+ * it was taken from at an {@link #offset}. A slice shares the characters and the taint of its parent
+ * and is only flattened once it turns out to be long-lived, i.e. once its characters were needed
+ * several times or once it is stored into an object or an array, {@see #promote(Object)}, or once
+ * its taint is needed and it is much smaller than its parent, so it does not keep the parent alive.
+ * <p>
+ * Strings are shared between threads, e.g. through interop or with the {@link SLTaintReporter}, and
+ * may be flattened by any of them. The lazily computed {@link #value} and {@link #taint} are
+ * therefore published through volatile fields, and the references to the parts of a rope or the
+ * parent of a slice are only cleared after them. A thread reading {@code null} from {@link #left}
+ * or {@link #parent} thus always sees the flat value. Flattening is idempotent, so two threads
+ * flattening the same string at once only duplicate work.
+ * <p>
+ * Every label {@code != SLNull.SINGLETON} inside {@link SLString#taint} is considered to be a valid Taint marker.
+ * For example, tainting with {@code false} is still considered to be tainted. A character may carry
+ * several labels, stored as the id of a {@link SLTaintLabelSet} interned in {@link SLTaintLabels}.
  */
 @ExportLibrary(InteropLibrary.class)
 @ExportLibrary(value = SLStringLibrary.class, priority = 1)
 @SuppressWarnings("static-method")
 public final class SLString implements TruffleObject {
 
+  /**
+   * Concatenations resulting in fewer characters are copied eagerly, as copying them is cheaper
+   * than flattening a rope later on.
+   */
+  static final int ROPE_MIN_LENGTH = 64;
+
+  /**
+   * Slices shorter than their parent by this factor are flattened as soon as their taint is needed,
+   * in order to release the parent.
+   */
+  static final int SLICE_FLATTEN_RATIO = 8;
+
+  /**
+   * Slices whose characters are needed this many times are flattened, as they are evidently
+   * long-lived. Earlier accesses copy the characters without keeping them, which leaves the taint
+   * of short-lived slices, e.g. the tokens of a tokenizer compared once, with their parent.
+   */
+  static final int SLICE_LONG_LIVED_ACCESSES = 4;
+
   /**
    * Concatenates 2 stringlike Objects, propagating their taint.
    * @param left left side of the concatenation
    * @param right right side of the concatenation
-   * @param taintLeft taint of the left side
-   * @param taintRight taint of the right side
    * @return resulting {@link SLString}
    */
   @TruffleBoundary
-  public static SLString concatenate(String left, String right, Object[] taintLeft, Object[] taintRight) {
-    String value = left + right;
-    Object[] taint = new Object[left.length() + right.length()];
-    
-    if (taintLeft != null) {
-      System.arraycopy(taintLeft, 0, taint, 0, left.length());
-    } else {
-      Arrays.fill(taint, 0, left.length(), SLNull.SINGLETON);
+  public static SLString concatenate(SLString left, SLString right) {
+    if (left.length + right.length < ROPE_MIN_LENGTH) {
+      return new SLString(left.getValue() + right.getValue(), SLTaintRanges.concat(left.getTaint(), left.length, right.getTaint()));
     }
+    return new SLString(left, right);
+  }
 
-    if (taintRight != null) {
-      System.arraycopy(taintRight, 0, taint, left.length(), right.length());
-    } else {
-      Arrays.fill(taint, left.length(), left.length() + right.length(), SLNull.SINGLETON);
+  /**
+   * Concatenates a taint tracked and an untainted string, {@see #concatenate(SLString, SLString)}.
+   */
+  @TruffleBoundary
+  public static SLString concatenate(SLString left, String right) {
+    if (left.length + right.length() < ROPE_MIN_LENGTH) {
+      return new SLString(left.getValue() + right, left.getTaint());
     }
+    return new SLString(left, new SLString(right));
+  }
 
-    return new SLString(value, taint);
+  /**
+   * Concatenates an untainted and a taint tracked string, {@see #concatenate(SLString, SLString)}.
+   */
+  @TruffleBoundary
+  public static SLString concatenate(String left, SLString right) {
+    if (left.length() + right.length < ROPE_MIN_LENGTH) {
+      return new SLString(left + right.getValue(), SLTaintRanges.concat(SLTaintRanges.NONE, left.length(), right.getTaint()));
+    }
+    return new SLString(new SLString(left), right);
   }
 
   /**
-   * The underlying {@link String} value.
+   * Concatenates several parts, each of them either a {@link String} or a {@link SLString}, at once.
+   * The length of the result is computed upfront, so the characters and the taint are assembled
+   * without intermediate strings. Parts of at least {@link #ROPE_MIN_LENGTH} characters are not
+   * copied but referenced by a rope, so appending to a long string in a loop still costs linear time.
+   * @param parts the parts to concatenate
+   * @return a {@link String} if all parts are {@link String}s, a {@link SLString} otherwise
    */
-  private final String value;
+  @TruffleBoundary
+  public static Object concatenate(Object[] parts) {
+    int length = 0;
+    boolean taintTracked = false;
+    for (Object part : parts) {
+      if (part instanceof SLString) {
+        taintTracked = true;
+        length += ((SLString) part).length;
+      } else {
+        length += ((String) part).length();
+      }
+    }
+    if (!taintTracked) {
+      StringBuilder sb = new StringBuilder(length);
+      for (Object part : parts) {
+        sb.append((String) part);
+      }
+      return sb.toString();
+    }
+    if (length < ROPE_MIN_LENGTH) {
+      return concatenateFlat(parts, 0, parts.length, length);
+    }
+
+    SLString result = null;
+    int pending = 0;
+    int pendingLength = 0;
+    for (int i = 0; i < parts.length; i++) {
+      int partLength = parts[i] instanceof SLString ? ((SLString) parts[i]).length : ((String) parts[i]).length();
+      if (partLength < ROPE_MIN_LENGTH) {
+        pendingLength += partLength;
+        continue;
+      }
+      if (pending < i) {
+        result = append(result, concatenateFlat(parts, pending, i, pendingLength));
+      }
+      result = append(result, parts[i] instanceof SLString ? (SLString) parts[i] : new SLString((String) parts[i]));
+      pending = i + 1;
+      pendingLength = 0;
+    }
+    if (pending < parts.length) {
+      result = append(result, concatenateFlat(parts, pending, parts.length, pendingLength));
+    }
+    return result;
+  }
+
+  private static SLString append(SLString left, SLString right) {
+    return left == null ? right : concatenate(left, right);
+  }
+
+  private static SLString concatenateFlat(Object[] parts, int from, int to, int length) {
+    char[] chars = new char[length];
+    SLTaintRanges.Builder taintBuilder = new SLTaintRanges.Builder(to - from);
+    int offset = 0;
+    for (int i = from; i < to; i++) {
+      if (parts[i] instanceof SLString) {
+        SLString part = (SLString) parts[i];
+        part.getValue().getChars(0, part.length, chars, offset);
+        taintBuilder.append(part.getTaint(), offset);
+        offset += part.length;
+      } else {
+        String part = (String) parts[i];
+        part.getChars(0, part.length(), chars, offset);
+        offset += part.length();
+      }
+    }
+    return new SLString(new String(chars), taintBuilder.build());
+  }
 
   /**
-   * The taint of the {@link String}.
+   * The underlying {@link String} value, {@code null} until a rope or a slice is flattened.
    */
-  @CompilationFinal(dimensions = 1)
-  private final Object[] taint;
+  private volatile String value;
+
+  /**
+   * The taint of the {@link String}, {@link SLTaintRanges#NONE} if no character is tainted.
+   * {@code null} until a rope is flattened, or until the taint of a slice is extracted.
+   */
+  private volatile SLTaintRanges taint;
+
+  /**
+   * The parts of a rope, {@code null} if this string is flat. {@link #right} is cleared before
+   * {@link #left}.
+   */
+  private volatile SLString left;
+  private volatile SLString right;
+
+  /**
+   * The flat string a slice was taken from and the index of its first character in the parent.
+   * {@link #parent} is {@code null} if this string is not a slice. {@link #offset} is written
+   * before {@link #parent}, so it must only be read after a non-null {@link #parent}.
+   */
+  private volatile SLString parent;
+  private int offset;
+
+  /**
+   * The number of times the characters of a slice were needed. Updated without synchronization, as
+   * a lost update only delays flattening.
+   */
+  private int sliceAccesses;
+
+  /**
+   * The number of characters.
+   */
+  private final int length;
+
+  /**
+   * Whether any character is tainted. Computed once at construction, as it is queried
+   * for both operands of every concatenation.
+   */
+  private final boolean tainted;
 
   /**
    * Creates a new taint tracking {@link String} with no taint.
+   * The taint is shared with every other untainted {@link SLString}.
    * @param value to be taint tracked
    */
   public SLString(String value) {
-    this(value, new Object[value.length()]);
-    Arrays.fill(this.taint, SLNull.SINGLETON);
+    this(value, SLTaintRanges.NONE);
   }
 
   /**
@@ -81,28 +235,374 @@ public final class SLString implements TruffleObject {
    * @param value to be taint tracked
    * @param taint the taint
    */
-  public SLString(String value, Object[] taint) {
+  public SLString(String value, SLTaintRanges taint) {
     this.value = value;
     this.taint = taint;
+    this.length = value.length();
+    this.tainted = taint != SLTaintRanges.NONE;
+  }
+
+  private SLString(SLString left, SLString right) {
+    this.right = right;
+    this.left = left;
+    this.length = left.length + right.length;
+    this.tainted = left.tainted || right.tainted;
+  }
+
+  private SLString(SLString parent, int offset, int length) {
+    assert parent.value != null && parent.parent == null;
+    this.offset = offset;
+    this.length = length;
+    this.tainted = SLTaintRanges.isTainted(parent.taint, offset, offset + length);
+    if (!tainted) {
+      this.taint = SLTaintRanges.NONE;
+    }
+    this.parent = parent;
+  }
+
+  /**
+   * @return the number of characters of the underlying {@link String}
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * @return the number of tainted characters
+   */
+  public int getTaintedLength() {
+    return getTaint().getTaintedLength();
+  }
+
+  /**
+   * The returned array must not be modified.
+   * @return the distinct label set ids of all characters
+   */
+  public int[] getTaintLabelSetIds() {
+    return getTaint().getDistinctLabelSetIds();
+  }
+
+  /**
+   * Returns the union of the labels of all characters, e.g. to taint a value derived from the
+   * whole string.
+   * @param labels the label table of the language
+   * @return the label set id, {@link SLTaintRanges#UNTAINTED} if the string is not tainted
+   */
+  @TruffleBoundary
+  public int getJoinedLabelSetId(SLTaintLabels labels) {
+    int[] ids = getTaintLabelSetIds();
+    int joined = SLTaintRanges.UNTAINTED;
+    for (int id : ids) {
+      joined = joined == SLTaintRanges.UNTAINTED ? id : labels.join(joined, id);
+    }
+    return joined;
   }
 
+  /**
+   * Removes the taint of the characters in {@code [from, to)}.
+   * @param from first character to untaint
+   * @param to first character not to untaint
+   * @return the untainted {@link SLString}, this string itself if no character in the range is tainted
+   */
   public SLString removeTaint(int from, int to) {
-    Object[] taintArr = Arrays.copyOf(taint, taint.length);
-    Arrays.fill(taintArr, from, to, SLNull.SINGLETON);
-    return new SLString(value, taintArr);
+    if (!tainted) {
+      return this;
+    }
+    return withTaint(SLTaintRanges.remove(getTaint(), from, to));
+  }
+
+  /**
+   * Removes the taint of the characters in several ranges at once, {@see SLTaintRanges#removeAll(SLTaintRanges, int[])}.
+   * @param bounds pairs of the first character to untaint and the first character not to untaint
+   * @return the untainted {@link SLString}, this string itself if no character in any range is tainted
+   */
+  public SLString removeTaint(int[] bounds) {
+    if (!tainted) {
+      return this;
+    }
+    return withTaint(SLTaintRanges.removeAll(getTaint(), bounds));
+  }
+
+  /**
+   * Removes the tainted characters themselves, unlike {@link #removeTaint(int, int)}.
+   * @return the untainted characters, in order
+   */
+  @TruffleBoundary
+  public String stripTainted() {
+    String value = getValue();
+    if (!tainted) {
+      return value;
+    }
+    SLTaintRanges ranges = getTaint();
+    StringBuilder sb = new StringBuilder(length - ranges.getTaintedLength());
+    int start = 0;
+    for (int run = 0; run < ranges.size(); run++) {
+      sb.append(value, start, ranges.getStart(run));
+      start = ranges.getEnd(run);
+    }
+    return sb.append(value, start, length).toString();
+  }
+
+  private SLString withTaint(SLTaintRanges newTaint) {
+    if (newTaint == getTaint()) {
+      return this;
+    }
+    return new SLString(getValue(), newTaint);
+  }
+
+  /**
+   * Adds the labels of a label set to every character, keeping the labels already present.
+   * @param labelSetId id of the label set
+   * @param labels the table interning {@code labelSetId}
+   * @return the tainted {@link SLString}
+   */
+  public SLString addTaint(int labelSetId, SLTaintLabels labels) {
+    return new SLString(getValue(), SLTaintRanges.join(getTaint(), length, labelSetId, labels));
+  }
+
+  /**
+   * Returns the characters in {@code [from, to)}, sharing the characters and the taint of this string.
+   * @param from first character of the substring
+   * @param to first character not part of the substring
+   * @return the substring
+   */
+  public SLString substring(int from, int to) {
+    if (from == 0 && to == length) {
+      return this;
+    }
+    if (left != null) {
+      flatten();
+    }
+    SLString slice = this;
+    int sliceOffset = 0;
+    SLString sliceParent = parent;
+    if (sliceParent != null) {
+      slice = sliceParent;
+      sliceOffset = offset;
+    }
+    return new SLString(slice, sliceOffset + from, to - from);
   }
 
-  public SLString addTaint(Object taint) {
-    Object[] taintArr = new Object[this.value.length()];
-    Arrays.fill(taintArr, taint);
-    return new SLString(this.value, taintArr);
+  /**
+   * Returns the character at {@code index} together with its taint.
+   * @param index of the character
+   * @return a {@link SLString} of length {@code 1}
+   */
+  @TruffleBoundary
+  public SLString charAt(int index) {
+    if (left != null) {
+      flatten();
+    }
+    SLString source = this;
+    int sourceIndex = index;
+    SLString sliceParent = parent;
+    if (sliceParent != null) {
+      source = sliceParent;
+      sourceIndex += offset;
+    }
+    int labelSetId = source.taint.labelAt(sourceIndex);
+    SLTaintRanges charTaint = labelSetId == SLTaintRanges.UNTAINTED ? SLTaintRanges.NONE : SLTaintRanges.of(1, labelSetId);
+    return new SLString(String.valueOf(source.value.charAt(sourceIndex)), charTaint);
+  }
+
+  /**
+   * Joins the label sets of all characters in {@code [from, to)}.
+   * Slices query the taint of their parent, so they are not flattened.
+   * {@see SLTaintRanges#labelSetIn(int, int, SLTaintLabels, int)}
+   */
+  public int labelSetIn(int from, int to, SLTaintLabels labels, int indexThreshold) {
+    if (!tainted) {
+      return SLTaintRanges.UNTAINTED;
+    }
+    if (left != null) {
+      flatten();
+    }
+    SLString sliceParent = parent;
+    if (sliceParent != null) {
+      return sliceParent.taint.labelSetIn(from + offset, to + offset, labels, indexThreshold);
+    }
+    return taint.labelSetIn(from, to, labels, indexThreshold);
+  }
+
+  /**
+   * Returns the first tainted character at or after {@code index}.
+   * Slices query the taint of their parent, so they are not flattened.
+   * @param index of the first character to consider
+   * @return the index of the tainted character, {@code -1} if there is none
+   */
+  public int nextTainted(int index) {
+    if (!tainted) {
+      return -1;
+    }
+    if (left != null) {
+      flatten();
+    }
+    SLString sliceParent = parent;
+    if (sliceParent != null) {
+      int next = sliceParent.taint.nextTainted(index + offset);
+      return next < 0 || next >= offset + length ? -1 : next - offset;
+    }
+    return taint.nextTainted(index);
+  }
+
+  /**
+   * Checks whether any character carries a label.
+   * @param labelId id of the label
+   * @param labels the table interning the label sets
+   * @param indexThreshold minimum number of runs to build an index for, used for slices
+   * @return {@code true} if a character carries the label
+   */
+  public boolean hasTaintLabel(int labelId, SLTaintLabels labels, int indexThreshold) {
+    if (!tainted) {
+      return false;
+    }
+    if (parent == null) {
+      return getTaint().hasLabel(labelId, labels);
+    }
+    int labelSetId = labelSetIn(0, length, labels, indexThreshold);
+    return labelSetId != SLTaintRanges.UNTAINTED && labels.getSet(labelSetId).contains(labelId);
+  }
+
+  /**
+   * Compares the characters with another string, disregarding the taint.
+   * Strings of different length are unequal without looking at their characters, so ropes and
+   * slices are only flattened if the lengths match.
+   * @param other the string to compare with
+   * @return {@code true} if both strings consist of the same characters
+   */
+  public boolean contentEquals(SLString other) {
+    if (this == other) {
+      return true;
+    }
+    return length == other.length && getValue().equals(other.getValue());
+  }
+
+  public boolean contentEquals(String other) {
+    return length == other.length() && getValue().equals(other);
+  }
+
+  /**
+   * Compares the characters with another string lexicographically, disregarding the taint.
+   * @param other the string to compare with
+   * @return a negative number, zero or a positive number if this string is less than, equal to
+   * or greater than {@code other}
+   */
+  @TruffleBoundary
+  public int compareTo(SLString other) {
+    return getValue().compareTo(other.getValue());
+  }
+
+  @TruffleBoundary
+  public int compareTo(String other) {
+    return getValue().compareTo(other);
+  }
+
+  /**
+   * Compares a string with a taint tracked string, {@see #compareTo(String)}.
+   */
+  @TruffleBoundary
+  public static int compare(String left, SLString right) {
+    return left.compareTo(right.getValue());
+  }
+
+  private String getValue() {
+    String flat = value;
+    if (flat != null) {
+      return flat;
+    }
+    if (left != null) {
+      flatten();
+    } else {
+      SLString sliceParent = parent;
+      if (sliceParent != null) {
+        if (++sliceAccesses < SLICE_LONG_LIVED_ACCESSES) {
+          return copySlice(sliceParent);
+        }
+        flattenSlice(sliceParent);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Flattens a string that is stored into an object or an array if it is a slice, as it may then
+   * outlive its parent by far.
+   * @param value the value stored
+   */
+  public static void promote(Object value) {
+    if (value instanceof SLString) {
+      SLString string = (SLString) value;
+      SLString sliceParent = string.parent;
+      if (sliceParent != null) {
+        string.flattenSlice(sliceParent);
+      }
+    }
+  }
+
+  /**
+   * @param sliceParent the parent, read by the caller, as another thread may release it meanwhile
+   * @return the characters of a slice, without keeping them
+   */
+  @TruffleBoundary
+  private String copySlice(SLString sliceParent) {
+    return sliceParent.value.substring(offset, offset + length);
+  }
+
+  /**
+   * Copies the characters of a slice and extracts its taint, releasing the parent.
+   * @param sliceParent the parent, read by the caller, as another thread may release it meanwhile
+   */
+  @TruffleBoundary
+  private void flattenSlice(SLString sliceParent) {
+    value = sliceParent.value.substring(offset, offset + length);
+    if (taint == null) {
+      taint = SLTaintRanges.slice(sliceParent.taint, offset, offset + length);
+    }
+    parent = null;
+  }
+
+  /**
+   * Assembles the characters and the taint of a rope.
+   * The rope is traversed iteratively, as ropes built in loops are deeply nested.
+   * Afterwards, the parts are released, so they can be garbage collected.
+   */
+  @TruffleBoundary
+  private void flatten() {
+    char[] chars = new char[length];
+    SLTaintRanges.Builder taintBuilder = new SLTaintRanges.Builder(4);
+    Deque<SLString> parts = new ArrayDeque<>();
+    parts.push(this);
+    int offset = 0;
+    while (!parts.isEmpty()) {
+      SLString part = parts.pop();
+      SLString partLeft = part.left;
+      SLString partRight = partLeft == null ? null : part.right;
+      SLString partParent = partLeft == null ? part.parent : null;
+      if (partRight != null) {
+        parts.push(partRight);
+        parts.push(partLeft);
+      } else if (partParent != null) {
+        int end = part.offset + part.length;
+        partParent.value.getChars(part.offset, end, chars, offset);
+        taintBuilder.append(partParent.taint, part.offset, end, offset);
+        offset += part.length;
+      } else {
+        part.value.getChars(0, part.length, chars, offset);
+        taintBuilder.append(part.taint, offset);
+        offset += part.length;
+      }
+    }
+    value = new String(chars);
+    taint = taintBuilder.build();
+    right = null;
+    left = null;
   }
 
   // message exports for SLStringLibrary
 
   @ExportMessage()
   String asString() {
-    return value;
+    return getValue();
   }
 
   @ExportMessage
@@ -112,17 +612,31 @@ public final class SLString implements TruffleObject {
 
   @ExportMessage
   public boolean isTainted() {
-    for (Object taint : this.taint) {
-      if (!SLTypes.isSLNull(taint)) { return true; }
-    }
-    return false;
+    return tainted;
   }
 
   @ExportMessage
-  public Object[] getTaint() {
+  public SLTaintRanges getTaint() {
+    if (left != null) {
+      flatten();
+    } else if (taint == null) {
+      SLString sliceParent = parent;
+      if (sliceParent != null) {
+        if (length * SLICE_FLATTEN_RATIO < sliceParent.length) {
+          flattenSlice(sliceParent);
+        } else {
+          taint = SLTaintRanges.slice(sliceParent.taint, offset, offset + length);
+        }
+      }
+    }
     return taint;
   }
 
+  @ExportMessage
+  SLString asSLString() {
+    return this;
+  }
+
   // message exports for InteropLibraray
 
   @ExportMessage
@@ -132,7 +646,7 @@ public final class SLString implements TruffleObject {
 
   @Override
   public String toString() {
-    return value;
+    return getValue();
   }
 
   /**
@@ -140,7 +654,7 @@ public final class SLString implements TruffleObject {
    */
   @Override
   public int hashCode() {
-    return value.hashCode();
+    return getValue().hashCode();
   }
 
   /**
@@ -152,6 +666,6 @@ public final class SLString implements TruffleObject {
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof SLString)) { return false; }
-    return value.equals(((SLString) obj).value);
+    return getValue().equals(((SLString) obj).getValue());
   }
 }
@@ -41,15 +41,21 @@ public abstract class SLStringLibrary extends Library {
 
   /**
    * Retrives the taint of the {@link receiver}.
-   * This method may return {@code null} if the {@code receiver} is not tainted.
-   * This method may also return an array of size {@code receiver.toSTring().length()},
-   * filled with {@link SLNull#SINGLETON} if the {@code receiver} is not tainted.
-   * If {@link SLStringLibrary#canBeTainted(Object)} returns {@code false}, this method
-   * if required to return {@code null}.
+   * This method returns the shared {@link SLTaintRanges#NONE} if the {@code receiver} is not tainted,
+   * which is always the case if {@link SLStringLibrary#isStringLike(Object)} returns {@code false},
+   * except for a {@link SLTaintedNumber}, whose string representation is tainted as a whole.
    * @param receiver some possibly tainted stringlike entity
    * @return the taint of the {@code receiver}
    */
-  public abstract Object[] getTaint(Object receiver);
+  public abstract SLTaintRanges getTaint(Object receiver);
+
+  /**
+   * Converts the {@code receiver} into a {@link SLString}, keeping its taint.
+   * Unlike {@link SLStringLibrary#asString(Object)}, this does not flatten a {@link SLString} rope.
+   * @param receiver some possibly tainted stringlike entity
+   * @return the {@link SLString} representation
+   */
+  public abstract SLString asSLString(Object receiver);
 
   @ExportLibrary(value = SLStringLibrary.class, receiverType = Object.class)
   @SuppressWarnings("static-method")
@@ -72,8 +78,14 @@ public abstract class SLStringLibrary extends Library {
     }
 
     @ExportMessage
-    static Object[] getTaint(Object receiver) {
-      return null;
+    static SLTaintRanges getTaint(Object receiver) {
+      return SLTaintRanges.NONE;
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    static SLString asSLString(Object receiver) {
+      return new SLString(receiver.toString());
     }
   }
 
@@ -98,8 +110,13 @@ public abstract class SLStringLibrary extends Library {
     }
 
     @ExportMessage
-    static Object[] getTaint(String receiver) {
-      return null;
+    static SLTaintRanges getTaint(String receiver) {
+      return SLTaintRanges.NONE;
+    }
+
+    @ExportMessage
+    static SLString asSLString(String receiver) {
+      return new SLString(receiver);
     }
   }
 }
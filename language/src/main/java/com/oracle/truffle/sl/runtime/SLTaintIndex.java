@@ -0,0 +1,48 @@
+package com.oracle.truffle.sl.runtime;
+
+/**
+ * Segment tree over the runs of a {@link SLTaintRanges}, storing the union of the label sets of
+ * every node's runs. Answers which labels cover a range of runs by joining {@code O(log n)} nodes,
+ * instead of joining the label set of every run in the range.
+ * <p>
+ * The tree is stored implicitly in an array: the leaves, i.e. the label sets of the runs, are stored
+ * at {@code [size, 2 * size)} and the parent of node {@code i} is {@code i / 2}.
+ */
+final class SLTaintIndex {
+
+  private final int size;
+
+  private final int[] nodes;
+
+  SLTaintIndex(SLTaintRanges ranges, SLTaintLabels labels) {
+    this.size = ranges.size();
+    this.nodes = new int[2 * size];
+    for (int run = 0; run < size; run++) {
+      nodes[size + run] = ranges.getLabelSetId(run);
+    }
+    for (int node = size - 1; node > 0; node--) {
+      nodes[node] = labels.join(nodes[2 * node], nodes[2 * node + 1]);
+    }
+  }
+
+  /**
+   * Joins the label sets of the runs in {@code [fromRun, toRun)}.
+   * @return the id of the joined label set, {@link SLTaintRanges#UNTAINTED} if the range is empty
+   */
+  int query(int fromRun, int toRun, SLTaintLabels labels) {
+    int result = SLTaintRanges.UNTAINTED;
+    for (int lo = fromRun + size, hi = toRun + size; lo < hi; lo /= 2, hi /= 2) {
+      if ((lo & 1) == 1) {
+        result = join(result, nodes[lo++], labels);
+      }
+      if ((hi & 1) == 1) {
+        result = join(result, nodes[--hi], labels);
+      }
+    }
+    return result;
+  }
+
+  private static int join(int labelSetId, int otherLabelSetId, SLTaintLabels labels) {
+    return labelSetId == SLTaintRanges.UNTAINTED ? otherLabelSetId : labels.join(labelSetId, otherLabelSetId);
+  }
+}
@@ -0,0 +1,91 @@
+package com.oracle.truffle.sl.runtime;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Immutable set of taint labels carried by a character.
+ * Label sets are hash-consed by {@link SLTaintLabels}, i.e. there is exactly one canonical instance
+ * per distinct set, identified by its {@link #getId() id}. {@link SLTaintRanges} only store these ids,
+ * so characters carrying the same labels share a single set, no matter how many strings they belong to.
+ */
+public final class SLTaintLabelSet {
+
+  /**
+   * Id of the canonical instance, {@code -1} for instances only used to look up the canonical one.
+   */
+  private final int id;
+
+  /**
+   * Ids of the labels, see {@link SLTaintLabels#intern(Object)}, sorted in ascending order.
+   */
+  private final int[] labelIds;
+
+  SLTaintLabelSet(int id, int[] labelIds) {
+    this.id = id;
+    this.labelIds = labelIds;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * @return the number of labels
+   */
+  public int size() {
+    return labelIds.length;
+  }
+
+  public int getLabelId(int index) {
+    return labelIds[index];
+  }
+
+  @TruffleBoundary
+  public boolean contains(int labelId) {
+    return Arrays.binarySearch(labelIds, labelId) >= 0;
+  }
+
+  /**
+   * Computes the sorted ids of the union of this set and {@code other}.
+   */
+  int[] union(SLTaintLabelSet other) {
+    int[] union = new int[labelIds.length + other.labelIds.length];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < labelIds.length && j < other.labelIds.length) {
+      int a = labelIds[i];
+      int b = other.labelIds[j];
+      if (a <= b) { i++; }
+      if (b <= a) { j++; }
+      union[count++] = Math.min(a, b);
+    }
+    while (i < labelIds.length) { union[count++] = labelIds[i++]; }
+    while (j < other.labelIds.length) { union[count++] = other.labelIds[j++]; }
+    return count == union.length ? union : Arrays.copyOf(union, count);
+  }
+
+  /**
+   * Implementation disregards the id, so a lookup instance equals its canonical instance.
+   */
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(labelIds);
+  }
+
+  /**
+   * Implementation disregards the id, so a lookup instance equals its canonical instance.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof SLTaintLabelSet)) { return false; }
+    return Arrays.equals(labelIds, ((SLTaintLabelSet) obj).labelIds);
+  }
+
+  @Override
+  public String toString() {
+    return "#" + id + Arrays.toString(labelIds);
+  }
+}
@@ -0,0 +1,218 @@
+package com.oracle.truffle.sl.runtime;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.sl.SLLanguage;
+
+/**
+ * Interning table for taint labels and sets of taint labels, owned by the {@link SLLanguage}.
+ * Taint labels are strings, numbers or booleans, e.g. {@code "DEFAULT_TAINT"}, user strings or
+ * numbers, {@see #toLabel(Object)}. Other values are rejected, as the table is shared by all
+ * contexts of the language and would otherwise keep objects of disposed contexts alive.
+ * Every distinct label (according to {@link Object#equals(Object)}) is assigned a small {@code int} id,
+ * starting at {@code 0}.
+ * <p>
+ * A character can carry several labels, so {@link SLTaintRanges} store the id of a canonical
+ * {@link SLTaintLabelSet} instead of a single label. Label sets are hash-consed, which allows storing
+ * their ids in primitive arrays and comparing them by {@code ==}. The union of two sets is memoized
+ * in a join cache, as the same few sets are joined over and over again.
+ * <p>
+ * Ids are mapped back to the original label objects at the interop boundary,
+ * e.g. by {@link InteropTaintArray}. Interned labels and sets are never released.
+ */
+public final class SLTaintLabels {
+
+  private final Map<Object, Integer> ids = new ConcurrentHashMap<>();
+
+  /**
+   * The labels indexed by their id. Replaced as a whole when a new label is interned,
+   * so readers never observe a partially initialized entry.
+   */
+  private volatile Object[] labels = new Object[0];
+
+  private final Map<SLTaintLabelSet, SLTaintLabelSet> canonicalSets = new ConcurrentHashMap<>();
+
+  /**
+   * The canonical label sets indexed by their id. Replaced as a whole, just like {@link #labels}.
+   */
+  private volatile SLTaintLabelSet[] sets = new SLTaintLabelSet[0];
+
+  /**
+   * Memoized unions, keyed by the ids of both sets, the smaller id in the upper half.
+   */
+  private final Map<Long, Integer> joinCache = new ConcurrentHashMap<>();
+
+  /**
+   * Converts an SL value to a taint label, which does not reference any context. Taint tracked
+   * strings are converted to {@link String}s, the taint of the label itself is not kept.
+   * @param value the value used as label
+   * @return the label, {@code null} if {@code value} cannot be used as a label
+   */
+  @TruffleBoundary
+  public static Object toLabel(Object value) {
+    if (value instanceof String || value instanceof Long || value instanceof Boolean || value instanceof SLBigNumber) {
+      return value;
+    } else if (value instanceof SLString) {
+      return value.toString();
+    } else if (value instanceof SLTaintedNumber) {
+      return ((SLTaintedNumber) value).getValue();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the id of {@code label}, assigning a new one if the label was never interned before.
+   * @param label the taint label, a value returned by {@link #toLabel(Object)}
+   * @return the id of the label
+   */
+  @TruffleBoundary
+  public int intern(Object label) {
+    assert toLabel(label) == label : "not a taint label: " + label;
+    Integer id = ids.get(label);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = ids.get(label);
+      if (id != null) {
+        return id;
+      }
+      Object[] oldLabels = labels;
+      Object[] newLabels = Arrays.copyOf(oldLabels, oldLabels.length + 1);
+      newLabels[oldLabels.length] = label;
+      labels = newLabels;
+      ids.put(label, oldLabels.length);
+      return oldLabels.length;
+    }
+  }
+
+  /**
+   * Returns the id of {@code label} without interning it.
+   * @param label the taint label
+   * @return the id of the label, {@code -1} if the label was never interned
+   */
+  @TruffleBoundary
+  public int find(Object label) {
+    Integer id = ids.get(label);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the id of the label set only containing {@code label}.
+   * @param label the taint label
+   * @return the id of the canonical label set
+   */
+  @TruffleBoundary
+  public int internSet(Object label) {
+    return internSet(new int[] { intern(label) });
+  }
+
+  private int internSet(int[] labelIds) {
+    SLTaintLabelSet lookup = new SLTaintLabelSet(-1, labelIds);
+    SLTaintLabelSet set = canonicalSets.get(lookup);
+    if (set != null) {
+      return set.getId();
+    }
+    synchronized (this) {
+      set = canonicalSets.get(lookup);
+      if (set != null) {
+        return set.getId();
+      }
+      SLTaintLabelSet[] oldSets = sets;
+      set = new SLTaintLabelSet(oldSets.length, labelIds);
+      SLTaintLabelSet[] newSets = Arrays.copyOf(oldSets, oldSets.length + 1);
+      newSets[oldSets.length] = set;
+      sets = newSets;
+      canonicalSets.put(set, set);
+      return set.getId();
+    }
+  }
+
+  /**
+   * Returns the id of the union of two label sets.
+   * @param setId id of the first label set
+   * @param otherSetId id of the second label set
+   * @return id of the canonical union
+   */
+  @TruffleBoundary
+  public int join(int setId, int otherSetId) {
+    if (setId == otherSetId) {
+      return setId;
+    }
+    long key = ((long) Math.min(setId, otherSetId) << 32) | Math.max(setId, otherSetId);
+    Integer joined = joinCache.get(key);
+    if (joined == null) {
+      joined = internSet(getSet(setId).union(getSet(otherSetId)));
+      joinCache.put(key, joined);
+    }
+    return joined;
+  }
+
+  /**
+   * @param id a label id returned by {@link #intern(Object)}
+   * @return the label object of {@code id}
+   */
+  public Object lookup(int id) {
+    return labels[id];
+  }
+
+  /**
+   * @param setId a label set id returned by {@link #internSet(Object)} or {@link #join(int, int)}
+   * @return the canonical label set
+   */
+  public SLTaintLabelSet getSet(int setId) {
+    return sets[setId];
+  }
+
+  /**
+   * Converts a label set to an interop value. A set containing a single label is represented
+   * by the label itself, larger sets by an array of their labels.
+   * @param setId a label set id
+   * @return the interop value
+   */
+  @TruffleBoundary
+  public Object toInterop(int setId) {
+    SLTaintLabelSet set = getSet(setId);
+    if (set.size() == 1) {
+      return lookup(set.getLabelId(0));
+    }
+    return new InteropArray(toLabels(set));
+  }
+
+  /**
+   * Converts a label set to an interop array of its labels, regardless of its size.
+   * @param setId a label set id
+   * @return the labels
+   */
+  @TruffleBoundary
+  public InteropArray toLabels(int setId) {
+    return new InteropArray(toLabels(getSet(setId)));
+  }
+
+  @TruffleBoundary
+  String toDisplayString(int setId) {
+    SLTaintLabelSet set = getSet(setId);
+    if (set.size() == 1) {
+      return String.valueOf(lookup(set.getLabelId(0)));
+    }
+    return Arrays.toString(toLabels(set));
+  }
+
+  private Object[] toLabels(SLTaintLabelSet set) {
+    Object[] result = new Object[set.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = lookup(set.getLabelId(i));
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of interned labels
+   */
+  public int size() {
+    return labels.length;
+  }
+}
@@ -0,0 +1,251 @@
+package com.oracle.truffle.sl.runtime;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.sl.SLException;
+import com.oracle.truffle.sl.SLLanguage;
+
+/**
+ * Declares which functions are taint sources, sinks and sanitizers, loaded from the file given by
+ * the {@link SLLanguage#TaintPolicy} option.
+ * <p>
+ * Every non-empty line of the file not starting with {@code #} declares one function:
+ * <pre>
+ * source    readln         user-input
+ * sink      println        log
+ * sink      eval
+ * sink      render         sanitize
+ * sink      send           sample 1000
+ * sanitizer escape
+ * </pre>
+ * The result of a <em>source</em> is tainted with the label given as third column, the name of the
+ * function if omitted. The result of a <em>sanitizer</em> is untainted. Functions are referred to by
+ * name, both builtins and SL functions can be declared.
+ * <p>
+ * A <em>sink</em> checks its arguments for taint. What happens on a violation depends on its
+ * {@link SinkMode mode}, given as third column. Sinks without a mode use the mode of the
+ * {@link SLLanguage#TaintSinkMode} option, sampling sinks without a rate the
+ * {@link SLLanguage#TaintSampleRate} option.
+ * <p>
+ * The policy is applied at the call sites of the functions, when they are parsed, {@see
+ * com.oracle.truffle.sl.nodes.taint.SLTaintPolicyNode}. Call sites of functions without an entry are
+ * not affected at all. Calls from other languages, e.g. through the polyglot API, are not checked.
+ */
+public final class SLTaintPolicy {
+
+  public enum Kind {
+    SOURCE,
+    SINK,
+    SANITIZER
+  }
+
+  /**
+   * What a sink does if it is called with a tainted argument.
+   */
+  public enum SinkMode {
+    /** Reports the violation and executes the sink. */
+    LOG,
+    /** Rejects the call with an exception. */
+    BLOCK,
+    /** Strips the tainted characters of strings, replaces other tainted values by {@code NULL}. */
+    SANITIZE,
+    /** Only checks one in N calls on average, reports the violations found like {@link #LOG}. */
+    SAMPLE
+  }
+
+  /**
+   * The declaration of a single function.
+   */
+  public static final class Entry {
+
+    private final Kind kind;
+    private final String function;
+    private final String label;
+    private final SinkMode mode;
+    private final int sampleRate;
+
+    Entry(Kind kind, String function, String label, SinkMode mode, int sampleRate) {
+      this.kind = kind;
+      this.function = function;
+      this.label = label;
+      this.mode = mode;
+      this.sampleRate = sampleRate;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public String getFunction() {
+      return function;
+    }
+
+    /**
+     * @return the label attached to the result of a source, {@code null} for other kinds
+     */
+    public String getLabel() {
+      return label;
+    }
+
+    /**
+     * @return the mode of a sink, {@code null} for other kinds
+     */
+    public SinkMode getMode() {
+      return mode;
+    }
+
+    /**
+     * @return the N of a sink checking one in N calls on average
+     */
+    public int getSampleRate() {
+      return sampleRate;
+    }
+  }
+
+  public static final SLTaintPolicy EMPTY = new SLTaintPolicy(Collections.emptyMap());
+
+  private final Map<String, Entry> entries;
+
+  private SLTaintPolicy(Map<String, Entry> entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * @param function the name of a function
+   * @return the declaration of {@code function}, {@code null} if the policy does not mention it
+   */
+  public Entry get(String function) {
+    return entries.get(function);
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * @return whether a sink reports violations instead of rejecting or sanitizing them
+   */
+  public boolean hasReportingSinks() {
+    for (Entry entry : entries.values()) {
+      if (entry.getMode() == SinkMode.LOG || entry.getMode() == SinkMode.SAMPLE) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Loads the policy file configured for a context.
+   * @param env the environment of the context
+   * @return the policy, {@link #EMPTY} if no policy file is configured
+   */
+  public static SLTaintPolicy load(Env env) {
+    String path = env.getOptions().get(SLLanguage.TaintPolicy);
+    if (path.isEmpty()) {
+      return EMPTY;
+    }
+    TruffleFile file = env.getPublicTruffleFile(path);
+    String content;
+    try {
+      content = new String(file.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException | SecurityException e) {
+      throw new SLException("Cannot read taint policy " + path + ": " + e.getMessage(), null);
+    }
+    SinkMode defaultMode = parseMode(env.getOptions().get(SLLanguage.TaintSinkMode));
+    if (defaultMode == null) {
+      throw new SLException("Invalid taint sink mode " + env.getOptions().get(SLLanguage.TaintSinkMode), null);
+    }
+    return parse(content, path, defaultMode, env.getOptions().get(SLLanguage.TaintSampleRate));
+  }
+
+  /**
+   * @param content the declarations, in the format described {@link SLTaintPolicy above}
+   * @param name the name of the policy, used in error messages
+   * @param defaultMode the mode of sinks declared without a mode
+   * @param defaultSampleRate the rate of sampling sinks declared without a rate
+   * @return the policy
+   */
+  public static SLTaintPolicy parse(String content, String name, SinkMode defaultMode, int defaultSampleRate) {
+    Map<String, Entry> entries = new HashMap<>();
+    String[] lines = content.split("\r?\n");
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] columns = line.split("\\s+");
+      Kind kind = parseKind(columns[0]);
+      if (kind == null) {
+        throw error(name, i, "unknown kind " + columns[0]);
+      }
+      if (columns.length < 2) {
+        throw error(name, i, "missing function name");
+      }
+      String function = columns[1];
+      String label = null;
+      SinkMode mode = null;
+      int sampleRate = 0;
+      int expectedColumns = 2;
+      if (kind == Kind.SOURCE) {
+        label = columns.length > 2 ? columns[2] : function;
+        expectedColumns = 3;
+      } else if (kind == Kind.SINK) {
+        mode = columns.length > 2 ? parseMode(columns[2]) : defaultMode;
+        if (mode == null) {
+          throw error(name, i, "unknown sink mode " + columns[2]);
+        }
+        expectedColumns = 3;
+        if (mode == SinkMode.SAMPLE) {
+          sampleRate = columns.length > 3 ? parseRate(columns[3]) : defaultSampleRate;
+          if (sampleRate < 1) {
+            throw error(name, i, "invalid sample rate " + (columns.length > 3 ? columns[3] : String.valueOf(sampleRate)));
+          }
+          expectedColumns = 4;
+        }
+      }
+      if (columns.length > expectedColumns) {
+        throw error(name, i, "unexpected " + columns[columns.length - 1]);
+      }
+      if (entries.putIfAbsent(function, new Entry(kind, function, label, mode, sampleRate)) != null) {
+        throw error(name, i, "function " + function + " is declared twice");
+      }
+    }
+    return new SLTaintPolicy(entries);
+  }
+
+  private static Kind parseKind(String kind) {
+    for (Kind candidate : Kind.values()) {
+      if (candidate.name().equalsIgnoreCase(kind)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private static SinkMode parseMode(String mode) {
+    for (SinkMode candidate : SinkMode.values()) {
+      if (candidate.name().equalsIgnoreCase(mode)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private static int parseRate(String rate) {
+    try {
+      return Integer.parseInt(rate);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static SLException error(String name, int line, String message) {
+    return new SLException("Invalid taint policy " + name + ", line " + (line + 1) + ": " + message, null);
+  }
+}
@@ -0,0 +1,553 @@
+package com.oracle.truffle.sl.runtime;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Run-length encoded taint of a {@link SLString}.
+ * Instead of storing one taint marker per character, the taint is stored as sorted, non overlapping
+ * runs {@code [start, end)}, each carrying a single set of taint labels. Characters not covered by
+ * any run are untainted.
+ * <p>
+ * Label sets are stored as ids of the canonical {@link SLTaintLabelSet}s interned in {@link SLTaintLabels}.
+ * Depending on the largest id, the ids of the runs are stored in a {@code byte[]}, {@code short[]} or {@code int[]}.
+ * <p>
+ * Adjacent runs carrying an equal label set are merged, so the memory footprint and the copying cost
+ * of all operations scale with the number of runs, not with the length of the string.
+ * <p>
+ * Instances are immutable. Every operation returning a {@link SLTaintRanges} returns either a new
+ * instance or one of its arguments. Completely untainted strings share the single instance
+ * {@link SLTaintRanges#NONE}, so no taint related memory is allocated for them.
+ * <p>
+ * A summary of the taint, i.e. the number of tainted characters and the distinct label sets, is computed
+ * once at construction, so queries like {@link SLString#isTainted()} never have to scan the runs.
+ * Queries on a range of characters locate the affected runs by binary search. Once the number of runs
+ * reaches a configurable threshold, the label sets of a range are joined using a lazily built
+ * {@link SLTaintIndex}.
+ */
+public final class SLTaintRanges {
+
+  /**
+   * Marks an untainted character in {@link #labelAt(int)}.
+   */
+  public static final int UNTAINTED = -1;
+
+  /**
+   * The taint of every untainted string. This is the only instance without runs.
+   */
+  public static final SLTaintRanges NONE = new SLTaintRanges(new int[0], new int[0], new byte[0]);
+
+  /**
+   * Start offsets (inclusive) of the runs, sorted in ascending order.
+   */
+  private final int[] starts;
+
+  /**
+   * End offsets (exclusive) of the runs.
+   */
+  private final int[] ends;
+
+  /**
+   * Label set id of each run, a {@code byte[]}, {@code short[]} or {@code int[]}.
+   * Accessed through {@link #getLabelSetId(int)}.
+   */
+  private final Object labelSetIds;
+
+  /**
+   * Number of tainted characters, i.e. the summed up length of all runs.
+   */
+  private final int taintedLength;
+
+  /**
+   * The distinct label set ids of all runs, in order of their first occurrence.
+   */
+  private final int[] distinctLabelSetIds;
+
+  /**
+   * Index answering range queries on strings with many runs, {@code null} until the first query
+   * on these runs exceeding the index threshold. Racing threads may both build it, which is harmless
+   * as the runs never change.
+   */
+  private SLTaintIndex index;
+
+  private SLTaintRanges(int[] starts, int[] ends, Object labelSetIds) {
+    assert starts.length == ends.length;
+    this.starts = starts;
+    this.ends = ends;
+    this.labelSetIds = labelSetIds;
+    this.taintedLength = computeTaintedLength(starts, ends);
+    this.distinctLabelSetIds = computeDistinctLabelSetIds();
+  }
+
+  private static int computeTaintedLength(int[] starts, int[] ends) {
+    int length = 0;
+    for (int i = 0; i < starts.length; i++) {
+      length += ends[i] - starts[i];
+    }
+    return length;
+  }
+
+  @TruffleBoundary
+  private int[] computeDistinctLabelSetIds() {
+    if (size() == 0) { return new int[0]; }
+    if (size() == 1) { return new int[] { getLabelSetId(0) }; }
+    BitSet seen = new BitSet();
+    int[] distinct = new int[size()];
+    int count = 0;
+    for (int i = 0; i < size(); i++) {
+      int id = getLabelSetId(i);
+      if (!seen.get(id)) {
+        seen.set(id);
+        distinct[count++] = id;
+      }
+    }
+    return Arrays.copyOf(distinct, count);
+  }
+
+  /**
+   * Stores the ids in the smallest primitive array able to hold the largest of them.
+   */
+  private static Object compactIds(int[] ids, int count) {
+    int max = 0;
+    for (int i = 0; i < count; i++) {
+      max = Math.max(max, ids[i]);
+    }
+    if (max <= 0xFF) {
+      byte[] compact = new byte[count];
+      for (int i = 0; i < count; i++) {
+        compact[i] = (byte) ids[i];
+      }
+      return compact;
+    } else if (max <= 0xFFFF) {
+      short[] compact = new short[count];
+      for (int i = 0; i < count; i++) {
+        compact[i] = (short) ids[i];
+      }
+      return compact;
+    }
+    return count == ids.length ? ids : Arrays.copyOf(ids, count);
+  }
+
+  private static Object allocateIdsLike(Object ids, int length) {
+    if (ids instanceof byte[]) {
+      return new byte[length];
+    } else if (ids instanceof short[]) {
+      return new short[length];
+    }
+    return new int[length];
+  }
+
+  private static void setId(Object ids, int index, int id) {
+    if (ids instanceof byte[]) {
+      ((byte[]) ids)[index] = (byte) id;
+    } else if (ids instanceof short[]) {
+      ((short[]) ids)[index] = (short) id;
+    } else {
+      ((int[]) ids)[index] = id;
+    }
+  }
+
+  /**
+   * Creates the taint of a string of length {@code length}, where every character carries the same labels.
+   * @param length length of the tainted string
+   * @param labelSetId id of the label set, see {@link SLTaintLabels#internSet(Object)}
+   * @return the taint ranges, {@link SLTaintRanges#NONE} if {@code length == 0}
+   */
+  public static SLTaintRanges of(int length, int labelSetId) {
+    if (length == 0) { return NONE; }
+    return new SLTaintRanges(new int[] { 0 }, new int[] { length }, compactIds(new int[] { labelSetId }, 1));
+  }
+
+  /**
+   * Concatenates the taint of two strings.
+   * @param left taint of the left string
+   * @param leftLength length of the left string
+   * @param right taint of the right string
+   * @return taint of the concatenated string
+   */
+  @TruffleBoundary
+  public static SLTaintRanges concat(SLTaintRanges left, int leftLength, SLTaintRanges right) {
+    if (right == NONE) { return left; }
+    if (left == NONE) { return right.shift(leftLength); }
+    return new Builder(left.size() + right.size()).append(left, 0).append(right, leftLength).build();
+  }
+
+  /**
+   * Adds the labels of a label set to every character of a string, keeping the labels already present.
+   * @param ranges the taint of the string
+   * @param length length of the string
+   * @param labelSetId id of the label set to add
+   * @param labels the table interning {@code labelSetId}
+   * @return the joined taint
+   */
+  @TruffleBoundary
+  public static SLTaintRanges join(SLTaintRanges ranges, int length, int labelSetId, SLTaintLabels labels) {
+    if (ranges == NONE) { return of(length, labelSetId); }
+
+    // every run and every gap between two runs becomes a run
+    Builder builder = new Builder(2 * ranges.size() + 1);
+    int position = 0;
+    for (int i = 0; i < ranges.size(); i++) {
+      if (ranges.starts[i] > position) {
+        builder.add(position, ranges.starts[i], labelSetId);
+      }
+      builder.add(ranges.starts[i], ranges.ends[i], labels.join(ranges.getLabelSetId(i), labelSetId));
+      position = ranges.ends[i];
+    }
+    if (position < length) {
+      builder.add(position, length, labelSetId);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Removes the taint of the characters in {@code [from, to)}.
+   * Runs partially covered by the range are split. The affected runs are located by binary search,
+   * the runs before and after them are copied in bulk.
+   * @param ranges the taint to remove from
+   * @param from first character to untaint
+   * @param to first character not to untaint
+   * @return the remaining taint, {@code ranges} itself if no character in the range is tainted
+   */
+  @TruffleBoundary
+  public static SLTaintRanges remove(SLTaintRanges ranges, int from, int to) {
+    if (from >= to) { return ranges; }
+    int first = ranges.firstRunEndingAfter(from);
+    int last = ranges.firstRunStartingAt(to);
+    if (first >= last) { return ranges; }
+
+    // only the first and the last affected run may be partially covered
+    boolean keepHead = ranges.starts[first] < from;
+    boolean keepTail = ranges.ends[last - 1] > to;
+    int size = ranges.size() - (last - first) + (keepHead ? 1 : 0) + (keepTail ? 1 : 0);
+    if (size == 0) { return NONE; }
+
+    int[] starts = new int[size];
+    int[] ends = new int[size];
+    Object labelSetIds = allocateIdsLike(ranges.labelSetIds, size);
+    System.arraycopy(ranges.starts, 0, starts, 0, first);
+    System.arraycopy(ranges.ends, 0, ends, 0, first);
+    System.arraycopy(ranges.labelSetIds, 0, labelSetIds, 0, first);
+    int run = first;
+    if (keepHead) {
+      starts[run] = ranges.starts[first];
+      ends[run] = from;
+      setId(labelSetIds, run++, ranges.getLabelSetId(first));
+    }
+    if (keepTail) {
+      starts[run] = to;
+      ends[run] = ranges.ends[last - 1];
+      setId(labelSetIds, run++, ranges.getLabelSetId(last - 1));
+    }
+    System.arraycopy(ranges.starts, last, starts, run, size - run);
+    System.arraycopy(ranges.ends, last, ends, run, size - run);
+    System.arraycopy(ranges.labelSetIds, last, labelSetIds, run, size - run);
+    return new SLTaintRanges(starts, ends, labelSetIds);
+  }
+
+  /**
+   * Removes the taint of the characters in several ranges at once.
+   * The ranges may be passed in any order and may overlap, empty ranges are ignored.
+   * @param ranges the taint to remove from
+   * @param bounds the ranges, as pairs of the first character to untaint and the first character not to untaint
+   * @return the remaining taint, {@code ranges} itself if no character in any range is tainted
+   */
+  @TruffleBoundary
+  public static SLTaintRanges removeAll(SLTaintRanges ranges, int[] bounds) {
+    assert bounds.length % 2 == 0;
+    if (bounds.length == 2) { return remove(ranges, bounds[0], bounds[1]); }
+    if (ranges == NONE) { return NONE; }
+
+    // sorted by from, as from occupies the upper half
+    long[] removed = new long[bounds.length / 2];
+    int count = 0;
+    for (int i = 0; i < bounds.length; i += 2) {
+      int from = Math.max(bounds[i], 0);
+      if (from < bounds[i + 1]) {
+        removed[count++] = ((long) from << 32) | bounds[i + 1];
+      }
+    }
+    Arrays.sort(removed, 0, count);
+
+    Builder builder = new Builder(ranges.size() + count);
+    boolean changed = false;
+    int next = 0;
+    for (int i = 0; i < ranges.size(); i++) {
+      int position = ranges.starts[i];
+      int end = ranges.ends[i];
+      int labelSetId = ranges.getLabelSetId(i);
+      while (next < count && (int) removed[next] <= position) {
+        next++;
+      }
+      for (int j = next; j < count && position < end && (int) (removed[j] >>> 32) < end; j++) {
+        int removedFrom = (int) (removed[j] >>> 32);
+        int removedTo = (int) removed[j];
+        if (removedTo <= position) { continue; }
+        if (removedFrom > position) {
+          builder.add(position, removedFrom, labelSetId);
+        }
+        position = removedTo;
+        changed = true;
+      }
+      if (position < end) {
+        builder.add(position, end, labelSetId);
+      }
+    }
+    return changed ? builder.build() : ranges;
+  }
+
+  /**
+   * Extracts the taint of the characters in {@code [from, to)}, shifted to start at {@code 0}.
+   * Only the runs overlapping the range are visited.
+   * @param ranges the taint to extract from
+   * @param from first character to extract
+   * @param to first character not to extract
+   * @return the taint of the range
+   */
+  @TruffleBoundary
+  public static SLTaintRanges slice(SLTaintRanges ranges, int from, int to) {
+    if (ranges == NONE) { return NONE; }
+    if (from == 0 && to >= ranges.ends[ranges.size() - 1]) { return ranges; }
+    return new Builder(4).append(ranges, from, to, 0).build();
+  }
+
+  /**
+   * Checks whether any character in {@code [from, to)} is tainted, without extracting the taint.
+   * @param ranges the taint to check
+   * @param from first character to check
+   * @param to first character not to check
+   * @return {@code true} if a run overlaps the range
+   */
+  @TruffleBoundary
+  public static boolean isTainted(SLTaintRanges ranges, int from, int to) {
+    if (ranges == NONE || from >= to) { return false; }
+    int run = ranges.firstRunEndingAfter(from);
+    return run < ranges.size() && ranges.starts[run] < to;
+  }
+
+  /**
+   * Returns the index of the first run starting at or after {@code index}, {@link #size()} if there is none.
+   */
+  private int firstRunStartingAt(int index) {
+    int run = Arrays.binarySearch(starts, index);
+    return run >= 0 ? run : -run - 1;
+  }
+
+  /**
+   * Returns the index of the first run ending after {@code index}, {@link #size()} if there is none.
+   * As the runs do not overlap, their ends are sorted as well.
+   */
+  private int firstRunEndingAfter(int index) {
+    int run = Arrays.binarySearch(ends, index);
+    return run >= 0 ? run + 1 : -run - 1;
+  }
+
+  /**
+   * @return the number of runs
+   */
+  public int size() {
+    return starts.length;
+  }
+
+  /**
+   * @return the number of tainted characters
+   */
+  public int getTaintedLength() {
+    return taintedLength;
+  }
+
+  /**
+   * Checks whether any character carries a label, using the distinct label sets instead of the runs.
+   * @param labelId id of the label
+   * @param labels the table interning the label sets of the runs
+   * @return {@code true} if a character carries the label
+   */
+  @TruffleBoundary
+  public boolean hasLabel(int labelId, SLTaintLabels labels) {
+    for (int labelSetId : distinctLabelSetIds) {
+      if (labels.getSet(labelSetId).contains(labelId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Joins the label sets of all characters in {@code [from, to)}.
+   * @param from first character of the range
+   * @param to first character not part of the range
+   * @param labels the table interning the label sets of the runs
+   * @param indexThreshold minimum number of runs to build a {@link SLTaintIndex} for
+   * @return the id of the joined label set, {@link #UNTAINTED} if no character in the range is tainted
+   */
+  @TruffleBoundary
+  public int labelSetIn(int from, int to, SLTaintLabels labels, int indexThreshold) {
+    if (from >= to) { return UNTAINTED; }
+    int first = firstRunEndingAfter(from);
+    int last = firstRunStartingAt(to);
+    if (first >= last) { return UNTAINTED; }
+    if (size() >= indexThreshold) {
+      SLTaintIndex runIndex = index;
+      if (runIndex == null) {
+        runIndex = new SLTaintIndex(this, labels);
+        index = runIndex;
+      }
+      return runIndex.query(first, last, labels);
+    }
+    int labelSetId = getLabelSetId(first);
+    for (int run = first + 1; run < last; run++) {
+      labelSetId = labels.join(labelSetId, getLabelSetId(run));
+    }
+    return labelSetId;
+  }
+
+  /**
+   * Returns the first tainted character at or after {@code index}.
+   * @param index of the first character to consider
+   * @return the index of the tainted character, {@code -1} if there is none
+   */
+  @TruffleBoundary
+  public int nextTainted(int index) {
+    int run = firstRunEndingAfter(index);
+    if (run == size()) { return -1; }
+    return Math.max(index, starts[run]);
+  }
+
+  /**
+   * The returned array must not be modified.
+   * @return the distinct label set ids
+   */
+  public int[] getDistinctLabelSetIds() {
+    return distinctLabelSetIds;
+  }
+
+  public int getStart(int run) {
+    return starts[run];
+  }
+
+  public int getEnd(int run) {
+    return ends[run];
+  }
+
+  public int getLabelSetId(int run) {
+    if (labelSetIds instanceof byte[]) {
+      return ((byte[]) labelSetIds)[run] & 0xFF;
+    } else if (labelSetIds instanceof short[]) {
+      return ((short[]) labelSetIds)[run] & 0xFFFF;
+    }
+    return ((int[]) labelSetIds)[run];
+  }
+
+  /**
+   * Returns the label set id of the character at {@code index}.
+   * @param index of the character
+   * @return the label set id, or {@link #UNTAINTED} if the character is untainted
+   */
+  @TruffleBoundary
+  public int labelAt(int index) {
+    int run = Arrays.binarySearch(starts, index);
+    if (run < 0) {
+      // insertion point - 1 is the last run starting before index
+      run = -run - 2;
+    }
+    if (run >= 0 && index < ends[run]) {
+      return getLabelSetId(run);
+    }
+    return UNTAINTED;
+  }
+
+  private SLTaintRanges shift(int offset) {
+    if (offset == 0) { return this; }
+    int size = size();
+    int[] shiftedStarts = new int[size];
+    int[] shiftedEnds = new int[size];
+    for (int i = 0; i < size; i++) {
+      shiftedStarts[i] = starts[i] + offset;
+      shiftedEnds[i] = ends[i] + offset;
+    }
+    return new SLTaintRanges(shiftedStarts, shiftedEnds, labelSetIds);
+  }
+
+  @Override
+  @TruffleBoundary
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < size(); i++) {
+      if (i > 0) { sb.append(", "); }
+      sb.append('[').append(starts[i]).append(", ").append(ends[i]).append(") #").append(getLabelSetId(i));
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Collects runs in ascending order, merging adjacent runs carrying an equal label set.
+   * Used to assemble the taint of a string from the taint of its parts.
+   */
+  static final class Builder {
+
+    private int[] starts;
+    private int[] ends;
+    private int[] labelSetIds;
+    private int count;
+
+    Builder(int capacity) {
+      int initial = Math.max(capacity, 1);
+      this.starts = new int[initial];
+      this.ends = new int[initial];
+      this.labelSetIds = new int[initial];
+    }
+
+    /**
+     * Appends all runs of {@code ranges}, shifted by {@code offset}.
+     * The shifted runs must start at or after the end of the last appended run.
+     */
+    @TruffleBoundary
+    Builder append(SLTaintRanges ranges, int offset) {
+      for (int i = 0; i < ranges.size(); i++) {
+        add(ranges.starts[i] + offset, ranges.ends[i] + offset, ranges.getLabelSetId(i));
+      }
+      return this;
+    }
+
+    /**
+     * Appends the runs of the characters in {@code [from, to)} of {@code ranges}, clipped to the range
+     * and shifted so that {@code from} is placed at {@code offset}.
+     */
+    @TruffleBoundary
+    Builder append(SLTaintRanges ranges, int from, int to, int offset) {
+      for (int i = ranges.firstRunEndingAfter(from); i < ranges.size() && ranges.starts[i] < to; i++) {
+        int start = Math.max(ranges.starts[i], from);
+        int end = Math.min(ranges.ends[i], to);
+        add(start - from + offset, end - from + offset, ranges.getLabelSetId(i));
+      }
+      return this;
+    }
+
+    @TruffleBoundary
+    Builder add(int start, int end, int labelSetId) {
+      assert count == 0 || ends[count - 1] <= start;
+      if (count > 0 && ends[count - 1] == start && labelSetIds[count - 1] == labelSetId) {
+        ends[count - 1] = end;
+        return this;
+      }
+      if (count == labelSetIds.length) {
+        int capacity = count * 2;
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        labelSetIds = Arrays.copyOf(labelSetIds, capacity);
+      }
+      starts[count] = start;
+      ends[count] = end;
+      labelSetIds[count++] = labelSetId;
+      return this;
+    }
+
+    SLTaintRanges build() {
+      if (count == 0) { return NONE; }
+      if (count == starts.length) { return new SLTaintRanges(starts, ends, compactIds(labelSetIds, count)); }
+      return new SLTaintRanges(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), compactIds(labelSetIds, count));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.oracle.truffle.sl.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Reports the {@link SLTaintViolation}s of a context asynchronously, so that sinks do not block on
+ * I/O, however many violations happen.
+ * <p>
+ * Sinks {@link #publish} violations to a bounded, lock-free ring buffer. A background thread drains
+ * the buffer in batches and passes the formatted violations to a {@link Handler}, e.g. a file
+ * configured by {@link com.oracle.truffle.sl.SLLanguage#TaintViolationLog}. If the buffer is full,
+ * the violation is dropped and counted instead, the number of dropped violations is reported with
+ * the next batch.
+ * <p>
+ * The buffer supports any number of publishing threads and the single reporter thread. A publisher
+ * reserves a slot by advancing {@link #head}, then fills it. The reporter consumes filled slots at
+ * {@link #tail} in order and stops at the first slot that is reserved but not filled yet.
+ */
+public final class SLTaintReporter {
+
+  /**
+   * Receives the violations of a context. Called by the reporter thread only, never concurrently.
+   */
+  public interface Handler {
+
+    /**
+     * @param violations the descriptions of the violations since the last call, in publishing order
+     */
+    void report(List<String> violations);
+
+    /**
+     * Called after the last batch, when the context is disposed.
+     */
+    default void close() {
+    }
+  }
+
+  static final int DEFAULT_CAPACITY = 4096;
+
+  private static final int BATCH_SIZE = 256;
+
+  private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final AtomicReferenceArray<SLTaintViolation> slots;
+  private final int mask;
+
+  /**
+   * The sequence number of the next slot to reserve.
+   */
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * The sequence number of the next slot to consume, only written by the reporter thread.
+   */
+  private final AtomicLong tail = new AtomicLong();
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final SLTaintLabels labels;
+  private final Handler handler;
+  private final Thread thread;
+  private volatile boolean closed;
+
+  /**
+   * Creates the reporter and starts its thread.
+   * @param capacity the capacity of the ring buffer, rounded up to a power of two
+   * @param labels the taint labels of the language, to format the violations
+   * @param handler receives the formatted violations
+   */
+  public SLTaintReporter(int capacity, SLTaintLabels labels, Handler handler) {
+    int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.labels = labels;
+    this.handler = handler;
+    this.thread = new Thread(this::run, "SL taint reporter");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Publishes a violation without waiting, drops it if the buffer is full.
+   * @return whether the violation was published
+   */
+  @TruffleBoundary
+  public boolean publish(SLTaintViolation violation) {
+    long sequence;
+    do {
+      sequence = head.get();
+      if (sequence - tail.get() >= slots.length()) {
+        dropped.incrementAndGet();
+        return false;
+      }
+    } while (!head.compareAndSet(sequence, sequence + 1));
+    slots.set((int) (sequence & mask), violation);
+    return true;
+  }
+
+  /**
+   * Stops the reporter thread after it reported all published violations.
+   */
+  public void close() {
+    closed = true;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    List<SLTaintViolation> batch = new ArrayList<>(BATCH_SIZE);
+    while (true) {
+      boolean last = closed;
+      drain(batch);
+      if (batch.isEmpty() && dropped.get() == 0) {
+        if (last) {
+          break;
+        }
+        LockSupport.parkNanos(this, IDLE_NANOS);
+        continue;
+      }
+      try {
+        report(batch);
+      } catch (RuntimeException e) {
+        /* A failing batch, e.g. a failing handler, must not stop the reporting of later violations. */
+      }
+      batch.clear();
+    }
+    handler.close();
+  }
+
+  private void drain(List<SLTaintViolation> batch) {
+    long sequence = tail.get();
+    while (batch.size() < BATCH_SIZE) {
+      int index = (int) (sequence & mask);
+      SLTaintViolation violation = slots.get(index);
+      if (violation == null) {
+        break;
+      }
+      slots.set(index, null);
+      batch.add(violation);
+      sequence++;
+    }
+    tail.set(sequence);
+  }
+
+  private void report(List<SLTaintViolation> batch) {
+    List<String> messages = new ArrayList<>(batch.size() + 1);
+    for (SLTaintViolation violation : batch) {
+      messages.add(violation.format(labels));
+    }
+    long lost = dropped.getAndSet(0);
+    if (lost > 0) {
+      messages.add(lost + " taint violations dropped, the reporter could not keep up.");
+    }
+    handler.report(messages);
+  }
+}
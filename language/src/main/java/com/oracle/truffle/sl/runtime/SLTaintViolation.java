@@ -0,0 +1,85 @@
+package com.oracle.truffle.sl.runtime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A tainted argument passed to a sink, published to the {@link SLTaintReporter} of the context.
+ * <p>
+ * The violation is formatted by the reporter thread, concurrently to the program that may still
+ * modify the tainted value. It therefore does not reference the value, only the label set id of its
+ * taint, computed by the publishing thread, {@see #of}.
+ */
+public final class SLTaintViolation {
+
+  private final String sink;
+  private final int argument;
+  private final int labelSetId;
+
+  /**
+   * @param sink the name of the sink
+   * @param argument the index of the tainted argument
+   * @param labelSetId the labels of the tainted argument, {@link SLTaintRanges#UNTAINTED} if unknown
+   */
+  public SLTaintViolation(String sink, int argument, int labelSetId) {
+    this.sink = sink;
+    this.argument = argument;
+    this.labelSetId = labelSetId;
+  }
+
+  /**
+   * Creates the violation of a tainted value, to be called by the thread passing the value to the
+   * sink.
+   * @param sink the name of the sink
+   * @param argument the index of the tainted argument
+   * @param value the tainted argument
+   * @param labels the taint labels of the language
+   */
+  @TruffleBoundary
+  public static SLTaintViolation of(String sink, int argument, Object value, SLTaintLabels labels) {
+    return new SLTaintViolation(sink, argument, labelSetIdOf(value, labels));
+  }
+
+  public String getSink() {
+    return sink;
+  }
+
+  public int getArgument() {
+    return argument;
+  }
+
+  public int getLabelSetId() {
+    return labelSetId;
+  }
+
+  /**
+   * @param labels the taint labels of the language
+   * @return the description of the violation, including the labels of the tainted argument
+   */
+  @TruffleBoundary
+  public String format(SLTaintLabels labels) {
+    String message = "Tainted value passed to sink " + sink + " as argument " + (argument + 1);
+    if (labelSetId == SLTaintRanges.UNTAINTED) {
+      return message + ".";
+    }
+    return message + " (labels: " + labels.toDisplayString(labelSetId) + ").";
+  }
+
+  private static int labelSetIdOf(Object value, SLTaintLabels labels) {
+    if (value instanceof SLString) {
+      return ((SLString) value).getJoinedLabelSetId(labels);
+    } else if (value instanceof SLTaintedNumber) {
+      return ((SLTaintedNumber) value).getLabelSetId();
+    } else if (value instanceof SLArray) {
+      SLArray array = (SLArray) value;
+      int joined = SLTaintRanges.UNTAINTED;
+      for (int i = 0; i < array.getSize(); i++) {
+        int labelSetId = array.getLabelSetId(i);
+        if (labelSetId != SLTaintRanges.UNTAINTED) {
+          joined = joined == SLTaintRanges.UNTAINTED ? labelSetId : labels.join(joined, labelSetId);
+        }
+      }
+      return joined;
+    }
+    return SLTaintRanges.UNTAINTED;
+  }
+}
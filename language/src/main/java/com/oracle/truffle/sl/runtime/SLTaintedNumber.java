@@ -0,0 +1,90 @@
+package com.oracle.truffle.sl.runtime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * A tainted {@code long} escaping the frame of a function, i.e. passed as an argument or a return
+ * value, stored in an object or an array, or concatenated to a string.
+ * <p>
+ * Within a function, tainted numbers are never boxed: the value is stored as a primitive and its
+ * taint in a shadow slot, {@see com.oracle.truffle.sl.nodes.SLShadowTaint}. The receiving function,
+ * or the node reading the number back from an object, unwraps the value again. Other languages see
+ * an {@link SLTaintedNumber} as a regular number. Builtins handle it explicitly, there is no
+ * implicit cast to {@code long} that would drop its taint unnoticed.
+ * <p>
+ * Converted to a string, the number taints all of its characters, {@see #asSLString()}.
+ */
+@ExportLibrary(value = InteropLibrary.class, delegateTo = "value")
+@ExportLibrary(SLStringLibrary.class)
+@SuppressWarnings("static-method")
+public final class SLTaintedNumber implements TruffleObject {
+
+  /**
+   * Boxed, so that the interop messages can be delegated to it.
+   */
+  final Long value;
+
+  /**
+   * The label set id of the number, never {@link SLTaintRanges#UNTAINTED}.
+   */
+  private final int labelSetId;
+
+  public SLTaintedNumber(long value, int labelSetId) {
+    assert labelSetId != SLTaintRanges.UNTAINTED;
+    this.value = value;
+    this.labelSetId = labelSetId;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  public int getLabelSetId() {
+    return labelSetId;
+  }
+
+  @ExportMessage
+  boolean isStringLike() {
+    return false;
+  }
+
+  @ExportMessage
+  boolean isTainted() {
+    return true;
+  }
+
+  @TruffleBoundary
+  @ExportMessage(library = SLStringLibrary.class)
+  String asString() {
+    return Long.toString(value);
+  }
+
+  @TruffleBoundary
+  @ExportMessage
+  SLTaintRanges getTaint() {
+    return SLTaintRanges.of(Long.toString(value).length(), labelSetId);
+  }
+
+  @TruffleBoundary
+  @ExportMessage
+  SLString asSLString() {
+    String string = Long.toString(value);
+    return new SLString(string, SLTaintRanges.of(string.length(), labelSetId));
+  }
+
+  @TruffleBoundary
+  @ExportMessage
+  String toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+    return Long.toString(value);
+  }
+
+  @TruffleBoundary
+  @Override
+  public String toString() {
+    return Long.toString(value);
+  }
+}
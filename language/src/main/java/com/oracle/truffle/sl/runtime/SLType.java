@@ -85,7 +85,7 @@ public final class SLType implements TruffleObject {
     public static final SLType BOOLEAN = new SLType("Boolean", (l, v) -> l.isBoolean(v));
     public static final SLType OBJECT = new SLType("Object", (l, v) -> l.hasMembers(v));
     public static final SLType FUNCTION = new SLType("Function", (l, v) -> l.isExecutable(v));
-    public static final SLType ARRAY = new SLType("Array", (l, v) -> v instanceof InteropArray);
+    public static final SLType ARRAY = new SLType("Array", (l, v) -> v instanceof SLArray || v instanceof InteropArray || v instanceof InteropTaintArray || v instanceof InteropTaintRanges);
 
     /*
      * This array is used when all types need to be checked in a certain order. While most interop
@@ -41,6 +41,7 @@
 package com.oracle.truffle.sl.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.graalvm.polyglot.Context;
@@ -81,4 +82,27 @@ public class SLCodeSharingTest {
         }
     }
 
+    @Test
+    public void testTaintInSharedCode() throws Exception {
+        Source describe = Source.newBuilder("sl", "" +
+                        "function describe(prefix, value) {\n" +
+                        "  return prefix + value;\n" +
+                        "}\n" +
+                        "function main() {\n" +
+                        "  return describe(\"n=\", 1);\n" +
+                        "}\n",
+                        "describe.sl").buildLiteral();
+        try (Engine engine = Engine.create()) {
+            try (Context context = Context.newBuilder().engine(engine).build()) {
+                assertEquals("n=1", context.eval(describe).asString());
+                assertTrue(context.eval("sl", "function main() { return isTainted(describe(addTaint(\"x\", \"l\"), 1)); }").asBoolean());
+            }
+            try (Context context = Context.newBuilder().engine(engine).build()) {
+                assertEquals("n=1", context.eval(describe).asString());
+                assertFalse(context.eval("sl", "function main() { return isTainted(describe(\"x\", 1)); }").asBoolean());
+                assertTrue(context.eval("sl", "function main() { return isTainted(describe(addTaint(\"x\", \"l\"), 1)); }").asBoolean());
+            }
+        }
+    }
+
 }
@@ -129,6 +129,46 @@ public class SLExecutionListenerTest {
         leaveStatement("2 + 3", 5, 2, 3);
     }
 
+    @Test
+    public void testAddChain() {
+        ExecutionListener.newBuilder().onEnter(this::add).onReturn(this::add).//
+                        expressions(true).//
+                        collectExceptions(true).collectInputValues(true).collectReturnValue(true).//
+                        attach(context.getEngine());
+        eval("2 + 3 + 4;");
+
+        enterStatement("2 + 3 + 4");
+        enterExpression("2 + 3");
+        enterExpression("2");
+        leaveExpression("2", 2);
+        enterExpression("3");
+        leaveExpression("3", 3);
+        leaveExpression("2 + 3", 5, 2, 3);
+        enterExpression("4");
+        leaveExpression("4", 4);
+        leaveStatement("2 + 3 + 4", 9, 5, 4);
+    }
+
+    @Test
+    public void testStringChain() {
+        ExecutionListener.newBuilder().onEnter(this::add).onReturn(this::add).//
+                        expressions(true).//
+                        collectExceptions(true).collectInputValues(true).collectReturnValue(true).//
+                        attach(context.getEngine());
+        eval("2 + \"a\" + 4;");
+
+        enterStatement("2 + \"a\" + 4");
+        enterExpression("2 + \"a\"");
+        enterExpression("2");
+        leaveExpression("2", 2);
+        enterExpression("\"a\"");
+        leaveExpression("\"a\"", "a");
+        leaveExpression("2 + \"a\"", "2a", 2, "a");
+        enterExpression("4");
+        leaveExpression("4", 4);
+        leaveStatement("2 + \"a\" + 4", "2a4", "2a", 4);
+    }
+
     @Test
     public void testRoots() {
         ExecutionListener.newBuilder().onEnter(this::add).onReturn(this::add).//
@@ -333,6 +373,8 @@ public class SLExecutionListenerTest {
             assertEquals(expected, actual.asInt());
         } else if (actual.isBoolean()) {
             assertEquals(expected, actual.asBoolean());
+        } else if (actual.isString()) {
+            assertEquals(expected, actual.asString());
         } else if (actual.canExecute()) {
             assertEquals(((Value) expected).getSourceLocation(), actual.getSourceLocation());
         } else {
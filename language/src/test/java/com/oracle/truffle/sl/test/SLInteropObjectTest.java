@@ -91,6 +91,24 @@ public class SLInteropObjectTest {
         Assert.assertEquals("[b]", obj.getMemberKeys().toString());
     }
 
+    @Test
+    public void testIndexedObject() {
+        final Source src = Source.newBuilder("sl", "function main() {o = new(); i = 0; while (i < 3) {o[i] = i * 10; i = i + 1;} o.a = 1; return o;}",
+                        "testIndexedObject.sl").buildLiteral();
+        final Value obj = context.eval(src);
+        Assert.assertFalse(obj.hasArrayElements());
+        Assert.assertEquals("[0, 1, 2, a]", obj.getMemberKeys().toString());
+        Assert.assertEquals(20, obj.getMember("2").asInt());
+
+        obj.putMember("3", 30);
+        Assert.assertEquals(30, obj.getMember("3").asInt());
+
+        obj.removeMember("1");
+        Assert.assertFalse(obj.hasMember("1"));
+        Assert.assertEquals(20, obj.getMember("2").asInt());
+        Assert.assertEquals("[0, a, 2, 3]", obj.getMemberKeys().toString());
+    }
+
     @Test
     public void testNewForeign() {
         final Source src = Source.newBuilder("sl", "function getValue(type) {o = new(type); o.a = 10; return o.value;}", "testObject.sl").buildLiteral();
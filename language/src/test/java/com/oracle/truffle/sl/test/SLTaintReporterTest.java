@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.sl.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLTaintLabels;
+import com.oracle.truffle.sl.runtime.SLTaintRanges;
+import com.oracle.truffle.sl.runtime.SLTaintReporter;
+import com.oracle.truffle.sl.runtime.SLTaintViolation;
+
+public class SLTaintReporterTest {
+
+    private static final String SCRIPT = "function secret() {\n" +
+                    "  return \"s3cr3t\";\n" +
+                    "}\n" +
+                    "\n" +
+                    "function send(channel, message) {\n" +
+                    "}\n" +
+                    "\n" +
+                    "function main() {\n" +
+                    "  i = 0;\n" +
+                    "  while (i < 3) {\n" +
+                    "    send(\"log\", secret() + i);\n" +
+                    "    i = i + 1;\n" +
+                    "  }\n" +
+                    "  send(\"log\", \"plain\");\n" +
+                    "  println(\"done\");\n" +
+                    "}\n";
+
+    private static final String VIOLATION = "Tainted value passed to sink send as argument 2 (labels: secret).";
+
+    private Path directory;
+    private Path policy;
+    private String script = SCRIPT;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sl-taint-reporter");
+        policy = directory.resolve("policy.txt");
+        writePolicy("sink send log");
+    }
+
+    private void writePolicy(String sink) throws IOException {
+        Files.write(policy, Arrays.asList("source secret", sink));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        SLLanguage.installTaintViolationHandler(null);
+        for (String file : directory.toFile().list()) {
+            Files.delete(directory.resolve(file));
+        }
+        Files.delete(directory);
+    }
+
+    private String run(String... options) {
+        return run(new ByteArrayOutputStream(), options);
+    }
+
+    private String run(ByteArrayOutputStream err, String... options) {
+        return run(Context.newBuilder(), err, options);
+    }
+
+    private String run(Context.Builder builder, ByteArrayOutputStream err, String... options) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        builder.allowExperimentalOptions(true).allowIO(true).out(out).err(err).option("sl.TaintPolicy", policy.toString());
+        for (int i = 0; i < options.length; i += 2) {
+            builder.option(options[i], options[i + 1]);
+        }
+        try (Context context = builder.build()) {
+            context.eval("sl", script);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testViolationLog() throws IOException {
+        Path log = directory.resolve("violations.log");
+        String output = run("sl.TaintViolationLog", log.toString());
+        Assert.assertEquals("done" + System.lineSeparator(), output);
+        Assert.assertEquals(Arrays.asList(VIOLATION, VIOLATION, VIOLATION), Files.readAllLines(log));
+    }
+
+    @Test
+    public void testViolationHandler() {
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+        SLLanguage.installTaintViolationHandler(reported::addAll);
+        String output = run();
+        Assert.assertEquals("done" + System.lineSeparator(), output);
+        Assert.assertEquals(Arrays.asList(VIOLATION, VIOLATION, VIOLATION), reported);
+    }
+
+    @Test
+    public void testViolationsToErrorStream() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        String output = run(err);
+        Assert.assertEquals("done" + System.lineSeparator(), output);
+        String line = VIOLATION + System.lineSeparator();
+        Assert.assertEquals(line + line + line, new String(err.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDefaultModeOption() throws IOException {
+        writePolicy("sink send");
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+        SLLanguage.installTaintViolationHandler(reported::addAll);
+        String output = run("sl.TaintSinkMode", "log");
+        Assert.assertEquals("done" + System.lineSeparator(), output);
+        Assert.assertEquals(Arrays.asList(VIOLATION, VIOLATION, VIOLATION), reported);
+    }
+
+    @Test
+    public void testSinkModeOfSharedEngine() throws IOException {
+        writePolicy("sink send");
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+        SLLanguage.installTaintViolationHandler(reported::addAll);
+        try (Engine engine = Engine.create()) {
+            String output = run(Context.newBuilder().engine(engine), new ByteArrayOutputStream(), "sl.TaintSinkMode", "log");
+            Assert.assertEquals("done" + System.lineSeparator(), output);
+            try {
+                run(Context.newBuilder().engine(engine), new ByteArrayOutputStream());
+                Assert.fail("the default sink mode blocks");
+            } catch (PolyglotException e) {
+                Assert.assertEquals("Tainted value passed to sink send as argument 2.", e.getMessage());
+            }
+        }
+        Assert.assertEquals(Arrays.asList(VIOLATION, VIOLATION, VIOLATION), reported);
+    }
+
+    @Test
+    public void testSampledSink() throws IOException {
+        writePolicy("sink send sample 1");
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+        SLLanguage.installTaintViolationHandler(reported::addAll);
+        String output = run();
+        Assert.assertEquals("done" + System.lineSeparator(), output);
+        Assert.assertEquals(Arrays.asList(VIOLATION, VIOLATION, VIOLATION), reported);
+    }
+
+    @Test
+    public void testSampleRate() throws IOException {
+        writePolicy("sink send sample 10");
+        script = SCRIPT.replace("i < 3", "i < 2000");
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+        SLLanguage.installTaintViolationHandler(reported::addAll);
+        String output = run();
+        Assert.assertEquals("done" + System.lineSeparator(), output);
+        /* One in ten calls is checked on average, the bounds are more than seven deviations apart. */
+        Assert.assertTrue(String.valueOf(reported.size()), reported.size() > 100 && reported.size() < 300);
+    }
+
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        CountDownLatch reporting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> reported = new ArrayList<>();
+        SLTaintReporter reporter = new SLTaintReporter(2, new SLTaintLabels(), violations -> {
+            reported.addAll(violations);
+            reporting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(reporter.publish(new SLTaintViolation("sink", 0, SLTaintRanges.UNTAINTED)));
+        reporting.await();
+        Assert.assertTrue(reporter.publish(new SLTaintViolation("sink", 1, SLTaintRanges.UNTAINTED)));
+        Assert.assertTrue(reporter.publish(new SLTaintViolation("sink", 2, SLTaintRanges.UNTAINTED)));
+        Assert.assertFalse(reporter.publish(new SLTaintViolation("sink", 3, SLTaintRanges.UNTAINTED)));
+        release.countDown();
+        reporter.close();
+        Assert.assertEquals(Arrays.asList(
+                        "Tainted value passed to sink sink as argument 1.",
+                        "Tainted value passed to sink sink as argument 2.",
+                        "Tainted value passed to sink sink as argument 3.",
+                        "1 taint violations dropped, the reporter could not keep up."), reported);
+    }
+
+    @Test
+    public void testFailingBatch() {
+        List<String> reported = new ArrayList<>();
+        boolean[] closed = new boolean[1];
+        SLTaintReporter reporter = new SLTaintReporter(4, new SLTaintLabels(), new SLTaintReporter.Handler() {
+            @Override
+            public void report(List<String> violations) {
+                reported.addAll(violations);
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        });
+        /* The label set is unknown, so formatting the violation fails. */
+        Assert.assertTrue(reporter.publish(new SLTaintViolation("sink", 0, 42)));
+        reporter.close();
+        Assert.assertTrue(closed[0]);
+        Assert.assertEquals(Collections.emptyList(), reported);
+    }
+}